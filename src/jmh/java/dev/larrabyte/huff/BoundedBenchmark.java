@@ -0,0 +1,58 @@
+package dev.larrabyte.huff;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Bounded draws with modulo rejection against Lemire's multiply-shift. The
+// bounds cover a power of two, a small odd bound, and one just over half the
+// range, where modulo rejects almost every other draw.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoundedBenchmark {
+    @Param({"MODULO", "LEMIRE"})
+    public MersenneTwister.BoundedMethod method;
+
+    @Param({"1024", "1000", "1073741825"})
+    public int intBound;
+
+    @Param({"1099511627776", "1000000007", "4611686018427387905"})
+    public long longBound;
+
+    private MersenneTwister rng;
+
+    @Setup
+    public void setup() {
+        rng = new MersenneTwister(4357);
+        rng.setBoundedMethod(method);
+    }
+
+    @Benchmark
+    public int nextIntBounded() {
+        return rng.nextInt(intBound);
+    }
+
+    @Benchmark
+    public long nextLongBounded() {
+        return rng.nextLong(longBound);
+    }
+
+    @Benchmark
+    public long nextLongRange() {
+        return rng.nextLong(-longBound, longBound);
+    }
+}
@@ -0,0 +1,91 @@
+package dev.larrabyte.huff;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// How often a busy consumer finds the ring empty, for tuning its capacity.
+// Each draw is followed by work tokens of Blackhole.consumeCPU, 0 being a
+// tight loop. Besides the score, read the "fallbacks" and "draws" counters:
+// their ratio is the share of draws that were generated inline. It needs a
+// spare core for the producer; on one CPU nearly every draw falls back.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class BufferedMersenneTwisterBenchmark {
+    @Param({"1024", "16384", "65536"})
+    public int capacity;
+
+    @Param({"0", "10", "100"})
+    public int work;
+
+    private BufferedMersenneTwister rng;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        rng = new BufferedMersenneTwister(new MersenneTwister(4357), capacity);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        rng.shutdown();
+    }
+
+    // Per-iteration counts, summed over the iteration.
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long draws;
+        public long fallbacks;
+
+        private long fallbacksBefore;
+        private BufferedMersenneTwister rng;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            draws = 0;
+            fallbacks = 0;
+            fallbacksBefore = -1;
+        }
+
+        void draw(BufferedMersenneTwister rng) {
+            if (fallbacksBefore < 0) {
+                this.rng = rng;
+                fallbacksBefore = rng.inlineFallbacks();
+            }
+
+            draws++;
+        }
+
+        @TearDown(Level.Iteration)
+        public void collect() {
+            if (rng != null) {
+                fallbacks = rng.inlineFallbacks() - fallbacksBefore;
+            }
+        }
+    }
+
+    @Benchmark
+    public int nextInt(Counters counters) {
+        counters.draw(rng);
+        Blackhole.consumeCPU(work);
+        return rng.nextInt();
+    }
+}
@@ -0,0 +1,95 @@
+package dev.larrabyte.huff;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Throughput of one shared generator as the thread count grows. The per-thread
+// facade should scale linearly; the locked twister is the baseline it replaces.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentMersenneTwisterBenchmark {
+    private ConcurrentMersenneTwister concurrent;
+    private MersenneTwister locked;
+
+    @Setup
+    public void setup() {
+        concurrent = new ConcurrentMersenneTwister(4357);
+        locked = new MersenneTwister(4357);
+    }
+
+    private double lockedDouble() {
+        synchronized (locked) {
+            return locked.nextDouble();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public double concurrent1() {
+        return concurrent.nextDouble();
+    }
+
+    @Benchmark
+    @Threads(2)
+    public double concurrent2() {
+        return concurrent.nextDouble();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public double concurrent4() {
+        return concurrent.nextDouble();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public double concurrent8() {
+        return concurrent.nextDouble();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public double locked1() {
+        return lockedDouble();
+    }
+
+    @Benchmark
+    @Threads(2)
+    public double locked2() {
+        return lockedDouble();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public double locked4() {
+        return lockedDouble();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public double locked8() {
+        return lockedDouble();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public double threadLocalRandom8() {
+        return ThreadLocalRandom.current().nextDouble();
+    }
+}
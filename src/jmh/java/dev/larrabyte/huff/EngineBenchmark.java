@@ -0,0 +1,69 @@
+package dev.larrabyte.huff;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The engines that can sit behind Main.rand, drawing through RandomSource.
+// Each fork sees only one engine, so the calls stay monomorphic as they would
+// in the mod.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineBenchmark {
+    @Param({"mt19937", "sfmt19937", "mt19937-64", "xoshiro256**", "pcg64", "philox4x32"})
+    public String engine;
+
+    private RandomSource rng;
+
+    @Setup
+    public void setup() {
+        switch (engine) {
+            case "mt19937": rng = new MersenneTwister(4357); break;
+            case "sfmt19937": rng = new SfmtTwister(4357); break;
+            case "mt19937-64": rng = new MersenneTwister64(4357); break;
+            case "xoshiro256**": rng = new Xoshiro256StarStar(4357); break;
+            case "pcg64": rng = new Pcg64(4357); break;
+            case "philox4x32": rng = new Philox4x32(4357); break;
+            default: throw new IllegalArgumentException("Unknown engine: " + engine);
+        }
+    }
+
+    @Benchmark
+    public int nextInt() {
+        return rng.nextInt();
+    }
+
+    @Benchmark
+    public long nextLong() {
+        return rng.nextLong();
+    }
+
+    @Benchmark
+    public double nextDouble() {
+        return rng.nextDouble();
+    }
+
+    @Benchmark
+    public int nextIntBounded() {
+        return rng.nextInt(1000);
+    }
+
+    @Benchmark
+    public double nextGaussian() {
+        return rng.nextGaussian();
+    }
+}
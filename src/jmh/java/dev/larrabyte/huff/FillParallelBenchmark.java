@@ -0,0 +1,64 @@
+package dev.larrabyte.huff;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Filling a large array on one thread against fillParallel() on the common
+// ForkJoinPool. Run with -Djava.util.concurrent.ForkJoinPool.common.parallelism
+// (via -jvmArgsAppend) to see how it scales; the output doesn't change.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FillParallelBenchmark {
+    @Param({"4194304", "33554432"})
+    public int size;
+
+    private MersenneTwister rng;
+    private double[] doubles;
+    private int[] ints;
+
+    @Setup
+    public void setup() {
+        rng = new MersenneTwister(4357);
+        doubles = new double[size];
+        ints = new int[size];
+    }
+
+    @Benchmark
+    public double[] nextDoubles() {
+        rng.nextDoubles(doubles);
+        return doubles;
+    }
+
+    @Benchmark
+    public double[] fillParallelDoubles() {
+        rng.fillParallel(doubles);
+        return doubles;
+    }
+
+    @Benchmark
+    public int[] nextInts() {
+        rng.nextInts(ints);
+        return ints;
+    }
+
+    @Benchmark
+    public int[] fillParallelInts() {
+        rng.fillParallel(ints);
+        return ints;
+    }
+}
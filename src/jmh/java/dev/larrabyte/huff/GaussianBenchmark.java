@@ -0,0 +1,67 @@
+package dev.larrabyte.huff;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Per-deviate cost of the Ziggurat samplers against the polar method.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GaussianBenchmark {
+    private MersenneTwister polar;
+    private MersenneTwister ziggurat;
+    private final double[] block = new double[1024];
+
+    @Setup
+    public void setup() {
+        polar = new MersenneTwister(4357);
+        polar.setGaussianMethod(MersenneTwister.GaussianMethod.POLAR);
+        ziggurat = new MersenneTwister(4357);
+        ziggurat.setGaussianMethod(MersenneTwister.GaussianMethod.ZIGGURAT);
+    }
+
+    @Benchmark
+    public double gaussianPolar() {
+        return polar.nextGaussian();
+    }
+
+    @Benchmark
+    public double gaussianZiggurat() {
+        return ziggurat.nextGaussian();
+    }
+
+    @Benchmark
+    public double[] gaussiansPolar() {
+        polar.nextGaussians(block);
+        return block;
+    }
+
+    @Benchmark
+    public double[] gaussiansZiggurat() {
+        ziggurat.nextGaussians(block);
+        return block;
+    }
+
+    @Benchmark
+    public double exponentialZiggurat() {
+        return ziggurat.nextExponential();
+    }
+
+    @Benchmark
+    public double exponentialInversion() {
+        return -Math.log(1.0 - ziggurat.nextDouble());
+    }
+}
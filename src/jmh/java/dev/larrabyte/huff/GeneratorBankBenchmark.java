@@ -0,0 +1,73 @@
+package dev.larrabyte.huff;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// One draw from each of many independent streams: the bank stepped as a
+// whole, the bank one stream at a time, and the one-object-per-stream layout
+// it replaces. The batch kernel in use is printed at setup; the vectorised
+// one needs a JDK 17+ run with -Pjava17.home set.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class GeneratorBankBenchmark {
+    @Param({"1024", "131072"})
+    public int streams;
+
+    private GeneratorBank bank;
+    private Xoshiro256StarStar[] objects;
+    private int[] out;
+
+    @Setup
+    public void setup() {
+        bank = new GeneratorBank(streams, 4357);
+        out = new int[streams];
+
+        Xoshiro256StarStar seed = new Xoshiro256StarStar(4357);
+        objects = new Xoshiro256StarStar[streams];
+
+        for (int i = 0; i < streams; i++) {
+            objects[i] = seed.split();
+        }
+
+        System.out.println("BankKernel: " + BankKernel.describe());
+    }
+
+    @Benchmark
+    public int[] bankFillAll() {
+        bank.fillAll(out);
+        return out;
+    }
+
+    @Benchmark
+    public int[] bankNextInt() {
+        for (int i = 0; i < streams; i++) {
+            out[i] = bank.nextInt(i);
+        }
+
+        return out;
+    }
+
+    @Benchmark
+    public int[] objectPerStream() {
+        for (int i = 0; i < streams; i++) {
+            out[i] = objects[i].nextInt();
+        }
+
+        return out;
+    }
+}
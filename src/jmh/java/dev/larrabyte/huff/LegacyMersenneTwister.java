@@ -0,0 +1,175 @@
+package dev.larrabyte.huff;
+
+// A trimmed copy of the generator as it was before twist() was factored out,
+// with the regeneration loop and mag01[] lookup inlined into every method.
+// Only kept around so the benchmarks have something to compare against.
+public class LegacyMersenneTwister {
+    private static final int N = 624;
+    private static final int M = 397;
+    private static final int MATRIX_A = 0x9908B0DF;
+    private static final int UPPER_MASK = 0x80000000;
+    private static final int LOWER_MASK = 0x7FFFFFFF;
+    private static final int TEMPERING_MASK_B = 0x9D2C5680;
+    private static final int TEMPERING_MASK_C = 0xEFC60000;
+
+    private int mt[];
+    private int mti;
+    private int mag01[];
+
+    public LegacyMersenneTwister(long seed) {
+        mt = new int[N];
+        mag01 = new int[2];
+        mag01[0] = 0x0;
+        mag01[1] = MATRIX_A;
+
+        mt[0] = (int) (seed & 0xFFFFFFFF);
+        for (mti = 1; mti < N; mti++) {
+            mt[mti] = (1812433253 * (mt[mti - 1] ^ (mt[mti - 1] >>> 30)) + mti);
+        }
+    }
+
+    public int nextInt() {
+        int y;
+
+        if (mti >= N) {
+            int kk = 0;
+
+            for (; kk < N - M; kk++) {
+                y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
+                mt[kk] = mt[kk + M] ^ (y >>> 1) ^ mag01[y & 0x1];
+            }
+
+            for (; kk < N - 1; kk++) {
+                y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
+                mt[kk] = mt[kk + (M - N)] ^ (y >>> 1) ^ mag01[y & 0x1];
+            }
+
+            y = (mt[N - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
+            mt[N - 1] = mt[M - 1] ^ (y >>> 1) ^ mag01[y & 0x1];
+            mti = 0;
+        }
+
+        y = mt[mti++];
+        y ^= y >>> 11;
+        y ^= (y << 7) & TEMPERING_MASK_B;
+        y ^= (y << 15) & TEMPERING_MASK_C;
+        y ^= (y >>> 18);
+
+        return y;
+    }
+
+    public double nextDouble() {
+        int y;
+        int z;
+
+        if (mti >= N) {
+            int kk;
+
+            for (kk = 0; kk < N - M; kk++) {
+                y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
+                mt[kk] = mt[kk + M] ^ (y >>> 1) ^ mag01[y & 0x1];
+            }
+
+            for (; kk < N - 1; kk++) {
+                y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
+                mt[kk] = mt[kk + (M - N)] ^ (y >>> 1) ^ mag01[y & 0x1];
+            }
+
+            y = (mt[N - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
+            mt[N - 1] = mt[M - 1] ^ (y >>> 1) ^ mag01[y & 0x1];
+            mti = 0;
+        }
+
+        y = mt[mti++];
+        y ^= y >>> 11;
+        y ^= (y << 7) & TEMPERING_MASK_B;
+        y ^= (y << 15) & TEMPERING_MASK_C;
+        y ^= (y >>> 18);
+
+        if (mti >= N) {
+            int kk;
+
+            for (kk = 0; kk < N - M; kk++) {
+                z = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
+                mt[kk] = mt[kk + M] ^ (z >>> 1) ^ mag01[z & 0x1];
+            }
+
+            for (; kk < N - 1; kk++) {
+                z = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
+                mt[kk] = mt[kk + (M - N)] ^ (z >>> 1) ^ mag01[z & 0x1];
+            }
+
+            z = (mt[N - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
+            mt[N - 1] = mt[M - 1] ^ (z >>> 1) ^ mag01[z & 0x1];
+            mti = 0;
+        }
+
+        z = mt[mti++];
+        z ^= z >>> 11;
+        z ^= (z << 7) & TEMPERING_MASK_B;
+        z ^= (z << 15) & TEMPERING_MASK_C;
+        z ^= (z >>> 18);
+
+        return ((((long) (y >>> 6)) << 27) + (z >>> 5)) / (double) (1L << 53);
+    }
+
+    public long nextLong(long n) {
+        long bits, val;
+        int y, z;
+
+        do {
+            if (mti >= N) {
+                int kk;
+
+                for (kk = 0; kk < N - M; kk++) {
+                    y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
+                    mt[kk] = mt[kk + M] ^ (y >>> 1) ^ mag01[y & 0x1];
+                }
+
+                for (; kk < N - 1; kk++) {
+                    y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
+                    mt[kk] = mt[kk + (M - N)] ^ (y >>> 1) ^ mag01[y & 0x1];
+                }
+
+                y = (mt[N - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
+                mt[N - 1] = mt[M - 1] ^ (y >>> 1) ^ mag01[y & 0x1];
+                mti = 0;
+            }
+
+            y = mt[mti++];
+            y ^= y >>> 11;
+            y ^= (y << 7) & TEMPERING_MASK_B;
+            y ^= (y << 15) & TEMPERING_MASK_C;
+            y ^= (y >>> 18);
+
+            if (mti >= N) {
+                int kk;
+
+                for (kk = 0; kk < N - M; kk++) {
+                    z = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
+                    mt[kk] = mt[kk + M] ^ (z >>> 1) ^ mag01[z & 0x1];
+                }
+
+                for (; kk < N - 1; kk++) {
+                    z = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
+                    mt[kk] = mt[kk + (M - N)] ^ (z >>> 1) ^ mag01[z & 0x1];
+                }
+
+                z = (mt[N - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
+                mt[N - 1] = mt[M - 1] ^ (z >>> 1) ^ mag01[z & 0x1];
+                mti = 0;
+            }
+
+            z = mt[mti++];
+            z ^= z >>> 11;
+            z ^= (z << 7) & TEMPERING_MASK_B;
+            z ^= (z << 15) & TEMPERING_MASK_C;
+            z ^= (z >>> 18);
+
+            bits = (((((long) y) << 32) + (long) z) >>> 1);
+            val = bits % n;
+        } while (bits - val + (n - 1) < 0);
+
+        return val;
+    }
+}
@@ -0,0 +1,189 @@
+package dev.larrabyte.huff;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Cost of every public draw on a single-owner MersenneTwister. Bulk methods
+// fill BLOCK values per call; divide by BLOCK for the per-value figure.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MersenneTwisterBenchmark {
+    private static final int BLOCK = 1024;
+
+    private MersenneTwister rng;
+
+    private final byte[] bytes = new byte[64];
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BLOCK);
+    private final int[] ints = new int[BLOCK];
+    private final long[] longs = new long[BLOCK];
+    private final float[] floats = new float[BLOCK];
+    private final double[] doubles = new double[BLOCK];
+
+    @Setup
+    public void setup() {
+        rng = new MersenneTwister(4357);
+    }
+
+    @Benchmark
+    public int nextInt() {
+        return rng.nextInt();
+    }
+
+    @Benchmark
+    public int nextIntBounded() {
+        return rng.nextInt(1000);
+    }
+
+    @Benchmark
+    public int nextIntRange() {
+        return rng.nextInt(-500, 500);
+    }
+
+    @Benchmark
+    public int nextBits() {
+        return rng.nextBits(5);
+    }
+
+    @Benchmark
+    public short nextShort() {
+        return rng.nextShort();
+    }
+
+    @Benchmark
+    public char nextChar() {
+        return rng.nextChar();
+    }
+
+    @Benchmark
+    public byte nextByte() {
+        return rng.nextByte();
+    }
+
+    @Benchmark
+    public boolean nextBoolean() {
+        return rng.nextBoolean();
+    }
+
+    @Benchmark
+    public boolean nextBooleanFloat() {
+        return rng.nextBoolean(0.3f);
+    }
+
+    @Benchmark
+    public boolean nextBooleanDouble() {
+        return rng.nextBoolean(0.3);
+    }
+
+    @Benchmark
+    public long nextLong() {
+        return rng.nextLong();
+    }
+
+    @Benchmark
+    public long nextLongBounded() {
+        return rng.nextLong(1000000007L);
+    }
+
+    @Benchmark
+    public long nextLongRange() {
+        return rng.nextLong(10000L, 12001L);
+    }
+
+    @Benchmark
+    public float nextFloat() {
+        return rng.nextFloat();
+    }
+
+    @Benchmark
+    public float nextFloatInclusive() {
+        return rng.nextFloat(true, true);
+    }
+
+    @Benchmark
+    public float nextFloatRange() {
+        return rng.nextFloat(-1.0f, 1.0f);
+    }
+
+    @Benchmark
+    public double nextDouble() {
+        return rng.nextDouble();
+    }
+
+    @Benchmark
+    public double nextDoubleInclusive() {
+        return rng.nextDouble(true, true);
+    }
+
+    @Benchmark
+    public double nextDoubleRange() {
+        return rng.nextDouble(0.8, 1.2);
+    }
+
+    @Benchmark
+    public double nextGaussian() {
+        return rng.nextGaussian();
+    }
+
+    @Benchmark
+    public double nextExponential() {
+        return rng.nextExponential();
+    }
+
+    @Benchmark
+    public byte[] nextBytes() {
+        rng.nextBytes(bytes);
+        return bytes;
+    }
+
+    @Benchmark
+    public ByteBuffer nextBytesBuffer() {
+        buffer.clear();
+        rng.nextBytes(buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public int[] nextInts() {
+        rng.nextInts(ints);
+        return ints;
+    }
+
+    @Benchmark
+    public long[] nextLongs() {
+        rng.nextLongs(longs);
+        return longs;
+    }
+
+    @Benchmark
+    public float[] nextFloats() {
+        rng.nextFloats(floats);
+        return floats;
+    }
+
+    @Benchmark
+    public double[] nextDoubles() {
+        rng.nextDoubles(doubles);
+        return doubles;
+    }
+
+    @Benchmark
+    public double[] nextGaussians() {
+        rng.nextGaussians(doubles);
+        return doubles;
+    }
+}
@@ -0,0 +1,141 @@
+package dev.larrabyte.huff;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Saving and restoring one generator through each of the state formats: the
+// DataStream format, the ByteBuffer record, and Java serialization in its
+// compact (seed plus draw count) and full forms.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StateIoBenchmark {
+    private MersenneTwister rng;
+    private MersenneTwister target;
+
+    private final ByteArrayOutputStream streamOut = new ByteArrayOutputStream(4096);
+    private byte[] streamBytes;
+
+    private final ByteBuffer heap = ByteBuffer.allocate(MersenneTwister.STATE_BYTES);
+    private final ByteBuffer direct = ByteBuffer.allocateDirect(MersenneTwister.STATE_BYTES).order(ByteOrder.nativeOrder());
+
+    private byte[] compactBytes;
+    private byte[] fullBytes;
+
+    @Setup
+    public void setup() throws IOException {
+        rng = new MersenneTwister(4357);
+        target = new MersenneTwister(1);
+
+        for (int x = 0; x < 10000; x++) {
+            rng.nextInt();
+        }
+
+        streamOut.reset();
+        rng.writeState(new DataOutputStream(streamOut));
+        streamBytes = streamOut.toByteArray();
+
+        rng.writeState(heap);
+        rng.writeState(direct);
+
+        compactBytes = serialize(rng);
+
+        MersenneTwister jumped = (MersenneTwister) rng.clone();
+        jumped.jump();
+        fullBytes = serialize(jumped);
+    }
+
+    private static byte[] serialize(Object o) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(o);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] data) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            return in.readObject();
+        }
+    }
+
+    @Benchmark
+    public int writeStateStream() throws IOException {
+        streamOut.reset();
+        rng.writeState(new DataOutputStream(streamOut));
+        return streamOut.size();
+    }
+
+    @Benchmark
+    public MersenneTwister readStateStream() throws IOException {
+        target.readState(new DataInputStream(new ByteArrayInputStream(streamBytes)));
+        return target;
+    }
+
+    @Benchmark
+    public ByteBuffer writeStateHeapBuffer() {
+        heap.clear();
+        rng.writeState(heap);
+        return heap;
+    }
+
+    @Benchmark
+    public MersenneTwister readStateHeapBuffer() throws IOException {
+        heap.rewind();
+        target.readState(heap);
+        return target;
+    }
+
+    @Benchmark
+    public ByteBuffer writeStateDirectBuffer() {
+        direct.clear();
+        rng.writeState(direct);
+        return direct;
+    }
+
+    @Benchmark
+    public MersenneTwister readStateDirectBuffer() throws IOException {
+        direct.rewind();
+        target.readState(direct);
+        return target;
+    }
+
+    @Benchmark
+    public byte[] serializeCompact() throws IOException {
+        return serialize(rng);
+    }
+
+    @Benchmark
+    public Object deserializeCompact() throws IOException, ClassNotFoundException {
+        return deserialize(compactBytes);
+    }
+
+    @Benchmark
+    public Object deserializeFull() throws IOException, ClassNotFoundException {
+        return deserialize(fullBytes);
+    }
+}
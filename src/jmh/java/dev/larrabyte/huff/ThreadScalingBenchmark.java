@@ -0,0 +1,157 @@
+package dev.larrabyte.huff;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+// nextDouble() throughput at 1, 2, 4 and 8 threads for our generators and the
+// JDK's. Random and ConcurrentMersenneTwister are shared between the threads,
+// the way Main.rand is used. MersenneTwister and SplittableRandom aren't
+// thread-safe, so each thread gets its own.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ThreadScalingBenchmark {
+    @State(Scope.Benchmark)
+    public static class Shared {
+        ConcurrentMersenneTwister concurrent;
+        Random random;
+        SplittableRandom splittableRoot;
+
+        @Setup
+        public void setup() {
+            concurrent = new ConcurrentMersenneTwister(4357);
+            random = new Random(4357);
+            splittableRoot = new SplittableRandom(4357);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class PerThread {
+        MersenneTwister twister;
+        SplittableRandom splittable;
+
+        @Setup
+        public void setup(Shared shared) {
+            synchronized (shared) {
+                twister = new MersenneTwister(shared.random.nextLong());
+                splittable = shared.splittableRoot.split();
+            }
+        }
+    }
+
+    @Benchmark @Threads(1)
+    public double twister1(PerThread local) {
+        return local.twister.nextDouble();
+    }
+
+    @Benchmark @Threads(2)
+    public double twister2(PerThread local) {
+        return local.twister.nextDouble();
+    }
+
+    @Benchmark @Threads(4)
+    public double twister4(PerThread local) {
+        return local.twister.nextDouble();
+    }
+
+    @Benchmark @Threads(8)
+    public double twister8(PerThread local) {
+        return local.twister.nextDouble();
+    }
+
+    @Benchmark @Threads(1)
+    public double concurrent1(Shared shared) {
+        return shared.concurrent.nextDouble();
+    }
+
+    @Benchmark @Threads(2)
+    public double concurrent2(Shared shared) {
+        return shared.concurrent.nextDouble();
+    }
+
+    @Benchmark @Threads(4)
+    public double concurrent4(Shared shared) {
+        return shared.concurrent.nextDouble();
+    }
+
+    @Benchmark @Threads(8)
+    public double concurrent8(Shared shared) {
+        return shared.concurrent.nextDouble();
+    }
+
+    @Benchmark @Threads(1)
+    public double random1(Shared shared) {
+        return shared.random.nextDouble();
+    }
+
+    @Benchmark @Threads(2)
+    public double random2(Shared shared) {
+        return shared.random.nextDouble();
+    }
+
+    @Benchmark @Threads(4)
+    public double random4(Shared shared) {
+        return shared.random.nextDouble();
+    }
+
+    @Benchmark @Threads(8)
+    public double random8(Shared shared) {
+        return shared.random.nextDouble();
+    }
+
+    @Benchmark @Threads(1)
+    public double splittable1(PerThread local) {
+        return local.splittable.nextDouble();
+    }
+
+    @Benchmark @Threads(2)
+    public double splittable2(PerThread local) {
+        return local.splittable.nextDouble();
+    }
+
+    @Benchmark @Threads(4)
+    public double splittable4(PerThread local) {
+        return local.splittable.nextDouble();
+    }
+
+    @Benchmark @Threads(8)
+    public double splittable8(PerThread local) {
+        return local.splittable.nextDouble();
+    }
+
+    @Benchmark @Threads(1)
+    public double threadLocal1() {
+        return ThreadLocalRandom.current().nextDouble();
+    }
+
+    @Benchmark @Threads(2)
+    public double threadLocal2() {
+        return ThreadLocalRandom.current().nextDouble();
+    }
+
+    @Benchmark @Threads(4)
+    public double threadLocal4() {
+        return ThreadLocalRandom.current().nextDouble();
+    }
+
+    @Benchmark @Threads(8)
+    public double threadLocal8() {
+        return ThreadLocalRandom.current().nextDouble();
+    }
+}
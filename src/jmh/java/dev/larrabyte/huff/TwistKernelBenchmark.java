@@ -0,0 +1,62 @@
+package dev.larrabyte.huff;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Per-call cost of the shared twist() kernel against the old inlined copies.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TwistKernelBenchmark {
+    private MersenneTwister current;
+    private LegacyMersenneTwister legacy;
+
+    @Setup
+    public void setup() {
+        current = new MersenneTwister(4357);
+        legacy = new LegacyMersenneTwister(4357);
+    }
+
+    @Benchmark
+    public int nextIntCurrent() {
+        return current.nextInt();
+    }
+
+    @Benchmark
+    public int nextIntLegacy() {
+        return legacy.nextInt();
+    }
+
+    @Benchmark
+    public double nextDoubleCurrent() {
+        return current.nextDouble();
+    }
+
+    @Benchmark
+    public double nextDoubleLegacy() {
+        return legacy.nextDouble();
+    }
+
+    @Benchmark
+    public long nextLongBoundedCurrent() {
+        return current.nextLong(1000000007L);
+    }
+
+    @Benchmark
+    public long nextLongBoundedLegacy() {
+        return legacy.nextLong(1000000007L);
+    }
+}
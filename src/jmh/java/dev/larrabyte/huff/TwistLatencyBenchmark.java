@@ -0,0 +1,48 @@
+package dev.larrabyte.huff;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Per-draw latency distribution in block and incremental twist mode. The
+// mean hardly moves; what matters is the tail (p99.9 and up), where block
+// mode pays for a whole 624-word twist on one draw in 624. Read the
+// percentiles in the output rather than the score.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class TwistLatencyBenchmark {
+    @Param({"BLOCK", "INCREMENTAL"})
+    public MersenneTwister.TwistMode mode;
+
+    private MersenneTwister rng;
+
+    @Setup
+    public void setup() {
+        rng = new MersenneTwister(4357);
+        rng.setTwistMode(mode);
+    }
+
+    @Benchmark
+    public int nextInt() {
+        return rng.nextInt();
+    }
+
+    @Benchmark
+    public double nextDouble() {
+        return rng.nextDouble();
+    }
+}
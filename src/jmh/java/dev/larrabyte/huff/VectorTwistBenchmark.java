@@ -0,0 +1,94 @@
+package dev.larrabyte.huff;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The state refill and bulk tempering at each vector width. The width is
+// fixed when TwistKernel loads, so every width gets its own fork. Widths
+// above what the host supports are capped (AVX2 tops out at 256 bits), and
+// the kernel actually used is printed at setup. Needs a JDK 17+ run with
+// -Pjava17.home set, otherwise every fork measures the scalar kernel.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class VectorTwistBenchmark {
+    private final int[] state = new int[624];
+    private final int[] words = new int[1024];
+    private MersenneTwister rng;
+
+    @Setup
+    public void setup() {
+        MersenneTwister seed = new MersenneTwister(4357);
+        seed.nextInts(state);
+        rng = new MersenneTwister(4357);
+        System.out.println("TwistKernel: " + TwistKernel.describe());
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Dhuff.vectorBits=0"})
+    public int[] twistScalar() {
+        TwistKernel.twist(state);
+        return state;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Dhuff.vectorBits=128"})
+    public int[] twist128() {
+        TwistKernel.twist(state);
+        return state;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Dhuff.vectorBits=256"})
+    public int[] twist256() {
+        TwistKernel.twist(state);
+        return state;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Dhuff.vectorBits=512"})
+    public int[] twist512() {
+        TwistKernel.twist(state);
+        return state;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Dhuff.vectorBits=0"})
+    public int[] nextIntsScalar() {
+        rng.nextInts(words);
+        return words;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Dhuff.vectorBits=128"})
+    public int[] nextInts128() {
+        rng.nextInts(words);
+        return words;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Dhuff.vectorBits=256"})
+    public int[] nextInts256() {
+        rng.nextInts(words);
+        return words;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Dhuff.vectorBits=512"})
+    public int[] nextInts512() {
+        rng.nextInts(words);
+        return words;
+    }
+}
@@ -0,0 +1,35 @@
+package dev.larrabyte.huff;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The click loop checks the timer every tick; both calls are a nanoTime() read.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WaitTimerBenchmark {
+    private final WaitTimer timer = new WaitTimer();
+
+    @Benchmark
+    public boolean hasTimeElapsed() {
+        return timer.hasTimeElapsed(50000000L);
+    }
+
+    @Benchmark
+    public WaitTimer reset() {
+        timer.reset();
+        return timer;
+    }
+}
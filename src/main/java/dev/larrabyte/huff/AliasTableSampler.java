@@ -0,0 +1,114 @@
+package dev.larrabyte.huff;
+
+// Draws an index i with probability weights[i] / sum(weights) in constant
+// time, using Vose's alias method ("A Linear Algorithm for Generating Random
+// Numbers with a Given Distribution", 1991).
+//
+// Construction splits the weights into n columns of equal height. Each column
+// holds part of its own outcome and tops up with one other outcome, its
+// alias. A sample picks a column uniformly, then tosses a biased coin to pick
+// between the column's own index and its alias. Both steps use a 32-bit word
+// and an integer compare. The column pick is exact. Each coin is the column's
+// share rounded up to a multiple of 2^-32.
+public final class AliasTableSampler {
+    private final MersenneTwister rng;
+    private final int n;
+    private final long columnThreshold;
+
+    // Coin thresholds out of 2^32, and the outcome taken when the coin fails.
+    private final long[] accept;
+    private final int[] alias;
+
+    public AliasTableSampler(MersenneTwister rng, double[] weights) {
+        if (weights.length == 0) {
+            throw new IllegalArgumentException("weights must not be empty.");
+        }
+
+        double sum = 0.0;
+
+        for (int x = 0; x < weights.length; x++) {
+            double w = weights[x];
+
+            if (!(w >= 0.0) || Double.isInfinite(w)) {
+                String reason = String.format("weights must be finite and non-negative! (index: %d, weight: %f)", x, w);
+                throw new IllegalArgumentException(reason);
+            }
+
+            sum += w;
+        }
+
+        if (!(sum > 0.0) || Double.isInfinite(sum)) {
+            throw new IllegalArgumentException("weights must have a positive, finite sum, got: " + sum);
+        }
+
+        this.rng = rng;
+        this.n = weights.length;
+        this.columnThreshold = (0x100000000L - n) % n;
+        this.accept = new long[n];
+        this.alias = new int[n];
+
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0, largeCount = 0;
+
+        for (int x = 0; x < n; x++) {
+            scaled[x] = weights[x] * n / sum;
+
+            if (scaled[x] < 1.0) {
+                small[smallCount++] = x;
+            } else {
+                large[largeCount++] = x;
+            }
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            int s = small[--smallCount];
+            int l = large[--largeCount];
+
+            accept[s] = toThreshold(scaled[s]);
+            alias[s] = l;
+
+            scaled[l] = (scaled[l] + scaled[s]) - 1.0;
+
+            if (scaled[l] < 1.0) {
+                small[smallCount++] = l;
+            } else {
+                large[largeCount++] = l;
+            }
+        }
+
+        // Whatever is left is 1.0 up to rounding error.
+        while (largeCount > 0) {
+            int l = large[--largeCount];
+            accept[l] = 0x100000000L;
+            alias[l] = l;
+        }
+
+        while (smallCount > 0) {
+            int s = small[--smallCount];
+            accept[s] = 0x100000000L;
+            alias[s] = s;
+        }
+    }
+
+    private static long toThreshold(double probability) {
+        return Math.min((long) Math.ceil(probability * 0x100000000L), 0x100000000L);
+    }
+
+    // Number of outcomes.
+    public int size() {
+        return n;
+    }
+
+    public int sample() {
+        long m = (rng.nextInt() & 0xFFFFFFFFL) * n;
+
+        while ((m & 0xFFFFFFFFL) < columnThreshold) {
+            m = (rng.nextInt() & 0xFFFFFFFFL) * n;
+        }
+
+        int column = (int) (m >>> 32);
+        return (rng.nextInt() & 0xFFFFFFFFL) < accept[column] ? column : alias[column];
+    }
+}
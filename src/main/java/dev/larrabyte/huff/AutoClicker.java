@@ -1,6 +1,8 @@
 package dev.larrabyte.huff;
 
+import java.io.IOException;
 import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.List;
 
@@ -21,7 +23,9 @@ import net.minecraftforge.fml.common.gameevent.TickEvent.PlayerTickEvent;
 import net.minecraftforge.fml.common.network.FMLNetworkEvent.ClientConnectedToServerEvent;
 import net.minecraftforge.fml.relauncher.ReflectionHelper;
 
-public class AutoClicker {
+public class AutoClicker implements Checkpointable {
+    private static final long serialVersionUID = 4031850919286474306L;
+
     // AutoClicker constants (ask boggle).
     private final long MAX_CPS = 14;
     private final long MIN_CPS = 8;
@@ -34,9 +38,40 @@ public class AutoClicker {
     private WaitTimer timer = new WaitTimer();
 
     // Right-click related fields.
-    private Field rightClickDelayTimerField = null;
+    private transient Field rightClickDelayTimerField = null;
     private boolean rightClickerEnabled = false;
 
+    @Override
+    public int checkpointBytes() {
+        return 8 + 8 + 1 + timer.checkpointBytes();
+    }
+
+    @Override
+    public void writeCheckpoint(ByteBuffer buffer) {
+        buffer.putLong(rangeCap);
+        buffer.putLong(rangeFloor);
+        buffer.put(rightClickerEnabled ? (byte) 1 : (byte) 0);
+        timer.writeCheckpoint(buffer);
+    }
+
+    @Override
+    public void readCheckpoint(ByteBuffer buffer) throws IOException {
+        long cap = buffer.getLong();
+        long floor = buffer.getLong();
+        byte enabled = buffer.get();
+
+        // The window always spans WINDOW_SIZE * GRANULARITY, somewhere inside the CPS limits.
+        if (cap - floor != WINDOW_SIZE * GRANULARITY || floor < MIN_CPS * GRANULARITY || cap > MAX_CPS * GRANULARITY) {
+            String reason = String.format("Bad click window in checkpoint! (floor: %d, cap: %d)", floor, cap);
+            throw new IOException(reason);
+        }
+
+        timer.readCheckpoint(buffer);
+        rangeCap = cap;
+        rangeFloor = floor;
+        rightClickerEnabled = enabled != 0;
+    }
+
     public boolean shouldLeftClick(Minecraft instance) {
         boolean pressed = instance.gameSettings.keyBindAttack.isKeyDown();
         boolean nonNull = instance.thePlayer.getCurrentEquippedItem() != null;
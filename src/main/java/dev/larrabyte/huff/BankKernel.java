@@ -0,0 +1,78 @@
+package dev.larrabyte.huff;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
+// The batch step of GeneratorBank, kept apart from it so a multi-release jar
+// can swap in a vectorised copy (src/main/java17) on Java 17+, as TwistKernel
+// does. This is the scalar version that Java 8 always gets. Every
+// implementation must give bit-identical output.
+//
+// The state is xoshiro128** laid out as four lanes of ints, s0 for every
+// stream, then s1, s2 and s3, in the buffer's byte order.
+final class BankKernel {
+    // Streams stepped per pass. Four lanes of this many ints stay in L1.
+    private static final int BLOCK = 256;
+
+    private BankKernel() {}
+
+    // Which implementation this is, for benchmark reports.
+    static String describe() {
+        return "scalar";
+    }
+
+    // Scratch for step(): four lanes of up to BLOCK streams, which the bank
+    // allocates once and hands back on every call.
+    static int[][] newScratch(int streams) {
+        return new int[4][Math.min(BLOCK, streams)];
+    }
+
+    // Steps every one of the streams once, writing stream i's output to out[i].
+    // Reading through the buffer an int at a time keeps the JIT from
+    // unrolling, so each block is copied onto the heap, stepped there in a
+    // plain array loop, and copied back.
+    static void step(ByteBuffer state, int streams, int[] out, int[][] scratch) {
+        IntBuffer lanes = state.asIntBuffer();
+        int[] s0 = scratch[0], s1 = scratch[1], s2 = scratch[2], s3 = scratch[3];
+        final int block = s0.length;
+
+        for (int base = 0; base < streams; base += block) {
+            int len = Math.min(block, streams - base);
+
+            lanes.position(base);
+            lanes.get(s0, 0, len);
+            lanes.position(base + streams);
+            lanes.get(s1, 0, len);
+            lanes.position(base + 2 * streams);
+            lanes.get(s2, 0, len);
+            lanes.position(base + 3 * streams);
+            lanes.get(s3, 0, len);
+
+            for (int i = 0; i < len; i++) {
+                int a = s0[i], b = s1[i], c = s2[i], d = s3[i];
+                out[base + i] = Integer.rotateLeft(b * 5, 7) * 9;
+
+                int t = b << 9;
+                c ^= a;
+                d ^= b;
+                b ^= c;
+                a ^= d;
+                c ^= t;
+
+                s0[i] = a;
+                s1[i] = b;
+                s2[i] = c;
+                s3[i] = Integer.rotateLeft(d, 11);
+            }
+
+            lanes.position(base);
+            lanes.put(s0, 0, len);
+            lanes.position(base + streams);
+            lanes.put(s1, 0, len);
+            lanes.position(base + 2 * streams);
+            lanes.put(s2, 0, len);
+            lanes.position(base + 3 * streams);
+            lanes.put(s3, 0, len);
+        }
+    }
+}
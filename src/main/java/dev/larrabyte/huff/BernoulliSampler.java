@@ -0,0 +1,36 @@
+package dev.larrabyte.huff;
+
+// Returns true with a fixed probability p. nextBoolean(double) compares a
+// 53-bit double against p. Here p is turned into the integer ceil(p * 2^53)
+// up front, and each sample compares the raw 53-bit draw against it. That is
+// exactly the same test, so the output is bit-identical, with no
+// floating-point work per sample.
+public final class BernoulliSampler {
+    private static final long ONE = 1L << 53;
+
+    private final MersenneTwister rng;
+    private final long threshold;
+
+    public BernoulliSampler(MersenneTwister rng, double probability) {
+        if (!(probability >= 0.0 && probability <= 1.0)) {
+            throw new IllegalArgumentException("probability must be between 0.0 and 1.0 inclusive.");
+        }
+
+        this.rng = rng;
+        this.threshold = (long) Math.ceil(probability * ONE);
+    }
+
+    public boolean sample() {
+        // Like nextBoolean(double), 0 and 1 are answered without drawing.
+        if (threshold == 0) {
+            return false;
+        } else if (threshold == ONE) {
+            return true;
+        }
+
+        int y = rng.nextInt();
+        int z = rng.nextInt();
+
+        return (((long) (y >>> 6)) << 27) + (z >>> 5) < threshold;
+    }
+}
@@ -0,0 +1,163 @@
+package dev.larrabyte.huff;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// A MersenneTwister whose words are generated ahead of time by a background
+// thread, so the caller never pays for a full state regeneration inline.
+//
+// A daemon producer keeps a single-producer/single-consumer ring of tempered
+// words topped up. Drawing is a wait-free read from the ring. If the ring ever
+// runs dry, the word is generated inline from a second, consumer-owned twister
+// instead of waiting. Both twisters are split() off the seed generator, so they
+// never overlap. The output still depends on timing, so it is not reproducible
+// from the seed alone.
+//
+// Only one thread may draw from an instance at a time. Call shutdown() when
+// finished to stop the producer.
+public class BufferedMersenneTwister implements RandomSource {
+    // Default ring capacity in words (must be a power of two).
+    private static final int DEFAULT_CAPACITY = 1 << 14;
+
+    // How long the producer sleeps when less than a batch of the ring is free.
+    private static final long IDLE_PARK_NANOS = 50000L;
+
+    // Words written between publishes of tail, one twist's worth. A consumer
+    // that has drained the ring waits at most this long for new words, rather
+    // than for the whole refill.
+    private static final int PUBLISH_BATCH = 624;
+
+    private final int[] ring;
+    private final int mask;
+
+    // PUBLISH_BATCH, or the whole ring if that's smaller.
+    private final int batch;
+
+    // Only touched by the producer thread.
+    private final MersenneTwister producerRng;
+
+    // Only touched by the consumer.
+    private final MersenneTwister inlineRng;
+    private long consumed;
+    private long available;
+
+    // Published positions. Each gets its own cache line so the two threads don't false-share.
+    private final PaddedAtomicLong head = new PaddedAtomicLong();
+    private final PaddedAtomicLong tail = new PaddedAtomicLong();
+
+    private volatile long inlineFallbacks;
+    private volatile boolean running = true;
+    private final Thread producer;
+
+    @SuppressWarnings("serial")
+    private static final class PaddedAtomicLong extends AtomicLong {
+        long p1, p2, p3, p4, p5, p6, p7;
+    }
+
+    // Constructor (uses time as the default seed).
+    public BufferedMersenneTwister() {
+        this(new MersenneTwister(), DEFAULT_CAPACITY);
+    }
+
+    // Constructor using a given seed (only the first 32-bits are used).
+    public BufferedMersenneTwister(long seed) {
+        this(new MersenneTwister(seed), DEFAULT_CAPACITY);
+    }
+
+    // Constructor taking substreams from an existing generator and a ring capacity in words.
+    public BufferedMersenneTwister(MersenneTwister source, int capacity) {
+        if (capacity <= 0 || (capacity & -capacity) != capacity) {
+            throw new IllegalArgumentException("capacity must be a positive power of two, got: " + capacity);
+        }
+
+        ring = new int[capacity];
+        mask = capacity - 1;
+        batch = Math.min(PUBLISH_BATCH, capacity);
+        producerRng = source.split();
+        inlineRng = source.split();
+
+        producer = new Thread(this::produce, "huff-rng-prefill");
+        producer.setDaemon(true);
+        producer.start();
+    }
+
+    private void produce() {
+        final int[] ring = this.ring;
+        long written = 0;
+
+        while (running) {
+            int free = ring.length - (int) (written - head.get());
+
+            // Topping up a batch at a time keeps the ring close to full, so a
+            // park never starts with a quarter of it already gone.
+            if (free < batch) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+
+            while (free > 0 && running) {
+                // Batches stop at the end of the array, so each is one bulk draw.
+                int index = (int) written & mask;
+                int len = Math.min(Math.min(free, batch), ring.length - index);
+
+                producerRng.nextInts(ring, index, len);
+                written += len;
+                free -= len;
+                tail.lazySet(written);
+            }
+        }
+    }
+
+    // Stops the producer thread. Draws keep working, but every one after the ring drains is inline.
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(producer);
+    }
+
+    // Number of words currently waiting in the ring.
+    public int fillLevel() {
+        return (int) (tail.get() - head.get());
+    }
+
+    public int capacity() {
+        return ring.length;
+    }
+
+    // Number of draws that found the ring empty and generated inline.
+    public long inlineFallbacks() {
+        return inlineFallbacks;
+    }
+
+    private int nextWord() {
+        long c = consumed;
+
+        if (c < available || c < (available = tail.get())) {
+            int y = ring[(int) c & mask];
+            consumed = c + 1;
+            head.lazySet(c + 1);
+            return y;
+        }
+
+        inlineFallbacks = inlineFallbacks + 1;
+        return inlineRng.nextInt();
+    }
+
+    public int nextInt() {
+        return nextWord();
+    }
+
+    public long nextLong() {
+        int y = nextWord();
+        int z = nextWord();
+
+        return (((long) y) << 32) + (long) z;
+    }
+
+    // Returns a random double in the range [0.0, 1.0).
+    public double nextDouble() {
+        int y = nextWord();
+        int z = nextWord();
+
+        return ((((long) (y >>> 6)) << 27) + (z >>> 5)) / (double) (1L << 53);
+    }
+}
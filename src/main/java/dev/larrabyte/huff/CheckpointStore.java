@@ -0,0 +1,298 @@
+package dev.larrabyte.huff;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+// Keeps snapshots of Checkpointable objects in a memory-mapped file.
+//
+// Each registered object gets a fixed slot, in registration order. A slot
+// holds two copies (halves) of the record, and each snapshot overwrites the
+// older one. A half carries a sequence number and a CRC32 over the sequence,
+// length and payload. A write torn by a crash fails its check, and the other
+// half, one snapshot older, is used instead.
+//
+// snapshot() copies every object into a staging buffer on the calling thread,
+// which should be the thread that owns the objects. A background thread then
+// copies the buffers into the mapping and flushes it, so the caller never
+// waits on the disk. open() restores from the mapping directly, with no object
+// deserialization.
+//
+// File layout (native byte order):
+//   header: magic, version, slot count, reserved, then each slot's capacity
+//   slots:  per slot, two halves of [sequence long, length int, crc int, payload]
+public class CheckpointStore implements Closeable {
+    private static final int MAGIC = 0x48554643;
+    private static final int VERSION = 1;
+    private static final int HALF_HEADER_BYTES = 16;
+
+    private final Path path;
+    private final List<Checkpointable> objects = new ArrayList<Checkpointable>();
+
+    private FileChannel channel;
+    private MappedByteBuffer mapping;
+    private int[] capacities;
+    private int[] offsets;
+    private ByteBuffer[] staging;
+
+    // Which half of each slot holds the newest valid record (-1 for neither).
+    // Only touched by the writer thread once open() returns.
+    private int[] newest;
+    private long sequence;
+
+    private final AtomicBoolean writing = new AtomicBoolean();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "huff-checkpoint");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public CheckpointStore(Path path) {
+        this.path = path;
+    }
+
+    // Adds an object to the next free slot. Must be called before open().
+    public void register(Checkpointable object) {
+        if (mapping != null) {
+            throw new IllegalStateException("Objects must be registered before the store is opened.");
+        }
+
+        objects.add(object);
+    }
+
+    // Maps the file and restores every object that has a valid record. A file
+    // with a different layout (other objects, other sizes) is started afresh.
+    // Returns the number of objects restored.
+    public int open() throws IOException {
+        if (mapping != null) {
+            throw new IllegalStateException("The store is already open.");
+        }
+
+        int count = objects.size();
+        capacities = new int[count];
+        offsets = new int[count];
+        staging = new ByteBuffer[count];
+        newest = new int[count];
+
+        long size = align(16 + 4 * count);
+
+        for (int x = 0; x < count; x++) {
+            capacities[x] = objects.get(x).checkpointBytes();
+            offsets[x] = (int) size;
+            staging[x] = ByteBuffer.allocate(capacities[x]).order(ByteOrder.nativeOrder());
+            size += 2 * halfBytes(capacities[x]);
+
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Checkpoint layout is too large: " + size + " bytes");
+            }
+        }
+
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        boolean fresh = channel.size() != size;
+
+        if (fresh) {
+            channel.truncate(0);
+            channel.write(ByteBuffer.allocate(1), size - 1);
+        }
+
+        mapping = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        mapping.order(ByteOrder.nativeOrder());
+
+        if (!fresh && !layoutMatches()) {
+            mapping.clear();
+            while (mapping.hasRemaining()) {
+                mapping.put((byte) 0);
+            }
+
+            fresh = true;
+        }
+
+        if (fresh) {
+            mapping.putInt(0, MAGIC);
+            mapping.putInt(4, VERSION);
+            mapping.putInt(8, count);
+            mapping.putInt(12, 0);
+
+            for (int x = 0; x < count; x++) {
+                mapping.putInt(16 + 4 * x, capacities[x]);
+            }
+
+            mapping.force();
+        }
+
+        int restored = 0;
+
+        for (int x = 0; x < count; x++) {
+            newest[x] = newestHalf(x);
+
+            if (newest[x] >= 0 && restore(x, newest[x])) {
+                restored++;
+            }
+        }
+
+        return restored;
+    }
+
+    private boolean layoutMatches() {
+        if (mapping.getInt(0) != MAGIC || mapping.getInt(4) != VERSION || mapping.getInt(8) != capacities.length) {
+            return false;
+        }
+
+        for (int x = 0; x < capacities.length; x++) {
+            if (mapping.getInt(16 + 4 * x) != capacities[x]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // Returns the valid half with the higher sequence number, or -1.
+    private int newestHalf(int slot) {
+        int best = -1;
+        long bestSequence = 0;
+
+        for (int half = 0; half < 2; half++) {
+            int base = halfOffset(slot, half);
+            long s = mapping.getLong(base);
+            int length = mapping.getInt(base + 8);
+
+            if (s <= 0 || length < 0 || length > capacities[slot]) {
+                continue;
+            }
+
+            if (mapping.getInt(base + 12) != checksum(mapping, base, length)) {
+                continue;
+            }
+
+            if (best < 0 || s > bestSequence) {
+                best = half;
+                bestSequence = s;
+            }
+
+            sequence = Math.max(sequence, s);
+        }
+
+        return best;
+    }
+
+    private boolean restore(int slot, int half) {
+        int base = halfOffset(slot, half);
+        ByteBuffer record = mapping.duplicate().order(ByteOrder.nativeOrder());
+        record.limit(base + HALF_HEADER_BYTES + mapping.getInt(base + 8)).position(base + HALF_HEADER_BYTES);
+
+        try {
+            objects.get(slot).readCheckpoint(record.slice().order(ByteOrder.nativeOrder()));
+            return true;
+        } catch (IOException e) {
+            // A record that passes its checksum but can't be read came from an incompatible build.
+            return false;
+        }
+    }
+
+    // Captures every registered object and queues the write. Returns false,
+    // without capturing anything, if the previous snapshot is still being written.
+    public boolean snapshot() {
+        if (mapping == null) {
+            throw new IllegalStateException("The store isn't open.");
+        }
+
+        if (!writing.compareAndSet(false, true)) {
+            return false;
+        }
+
+        try {
+            for (int x = 0; x < staging.length; x++) {
+                staging[x].clear();
+                objects.get(x).writeCheckpoint(staging[x]);
+                staging[x].flip();
+            }
+
+            writer.execute(this::commit);
+            return true;
+        } catch (RuntimeException e) {
+            writing.set(false);
+            throw e;
+        }
+    }
+
+    // Runs on the writer thread: fills the older half of each slot, then flushes.
+    private void commit() {
+        try {
+            long s = ++sequence;
+
+            for (int x = 0; x < staging.length; x++) {
+                int half = newest[x] == 0 ? 1 : 0;
+                int base = halfOffset(x, half);
+                int length = staging[x].remaining();
+
+                ByteBuffer dst = mapping.duplicate();
+                dst.position(base + HALF_HEADER_BYTES);
+                dst.put(staging[x].duplicate());
+
+                // Stamp the sequence last; the checksum covers it either way.
+                mapping.putInt(base + 8, length);
+                mapping.putLong(base, s);
+                mapping.putInt(base + 12, checksum(mapping, base, length));
+                newest[x] = half;
+            }
+
+            mapping.force();
+        } finally {
+            writing.set(false);
+        }
+    }
+
+    // Waits for any snapshot in flight, then releases the file.
+    @Override
+    public void close() throws IOException {
+        writer.shutdown();
+
+        try {
+            writer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private int halfOffset(int slot, int half) {
+        return offsets[slot] + half * halfBytes(capacities[slot]);
+    }
+
+    private static int halfBytes(int capacity) {
+        return (int) align(HALF_HEADER_BYTES + (long) capacity);
+    }
+
+    private static long align(long n) {
+        return (n + 7) & ~7L;
+    }
+
+    // CRC32 of a half's sequence, length and payload.
+    private static int checksum(ByteBuffer mapping, int base, int length) {
+        ByteBuffer region = mapping.duplicate();
+        CRC32 crc = new CRC32();
+
+        region.limit(base + 12).position(base);
+        crc.update(region);
+        region.limit(base + HALF_HEADER_BYTES + length).position(base + HALF_HEADER_BYTES);
+        crc.update(region);
+
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,19 @@
+package dev.larrabyte.huff;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+// A Persistable whose state fits a fixed-size binary record, so it can live
+// in a slot of a CheckpointStore and be restored with a plain memory copy.
+public interface Checkpointable extends Persistable {
+    // Most bytes writeCheckpoint() will ever write. Fixes the size of the slot.
+    int checkpointBytes();
+
+    // Writes the current state at the buffer's position. Called on the thread
+    // that owns the object, so it sees a consistent state.
+    void writeCheckpoint(ByteBuffer buffer);
+
+    // Restores state written by writeCheckpoint(), leaving the object as it
+    // was if the record doesn't make sense.
+    void readCheckpoint(ByteBuffer buffer) throws IOException;
+}
@@ -0,0 +1,69 @@
+package dev.larrabyte.huff;
+
+import java.nio.ByteBuffer;
+
+// A MersenneTwister that any number of threads can draw from at once. See
+// ConcurrentRandomSource for how the per-thread substreams work; this adds
+// the MersenneTwister-only settings and draws on top.
+public class ConcurrentMersenneTwister extends ConcurrentRandomSource<MersenneTwister> {
+    private static final long serialVersionUID = 6311394217458861702L;
+
+    // Constructor (uses time as the default seed).
+    public ConcurrentMersenneTwister() {
+        this(System.currentTimeMillis());
+    }
+
+    // Constructor using a given seed (only the first 32-bits are used).
+    public ConcurrentMersenneTwister(long seed) {
+        super(new MersenneTwister(seed));
+    }
+
+    // Constructor using an array of integers. Only the first 624 are used.
+    public ConcurrentMersenneTwister(int[] array) {
+        super(new MersenneTwister(array));
+    }
+
+    // Reseeds the root. Every thread picks up a new substream on its next draw.
+    synchronized public void setSeed(long seed) {
+        root().setSeed(seed);
+        invalidate();
+    }
+
+    synchronized public void setSeed(int[] array) {
+        root().setSeed(array);
+        invalidate();
+    }
+
+    // Sets how every thread's generator bounds nextInt(int) and nextLong(long).
+    // Like a reseed, threads move onto fresh substreams.
+    synchronized public void setBoundedMethod(MersenneTwister.BoundedMethod method) {
+        root().setBoundedMethod(method);
+        invalidate();
+    }
+
+    // Turns bit pooling on or off for every thread's generator. Like a reseed,
+    // threads move onto fresh substreams.
+    synchronized public void setBitPooling(boolean enabled) {
+        root().setBitPooling(enabled);
+        invalidate();
+    }
+
+    // Sets when every thread's generator regenerates its state. Like a
+    // reseed, threads move onto fresh substreams.
+    synchronized public void setTwistMode(MersenneTwister.TwistMode mode) {
+        root().setTwistMode(mode);
+        invalidate();
+    }
+
+    public int nextBits(int k) {
+        return current().nextBits(k);
+    }
+
+    public void nextBytes(ByteBuffer buffer) {
+        current().nextBytes(buffer);
+    }
+
+    public void nextBytesLegacy(byte[] bytes) {
+        current().nextBytesLegacy(bytes);
+    }
+}
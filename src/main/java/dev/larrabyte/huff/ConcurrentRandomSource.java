@@ -0,0 +1,202 @@
+package dev.larrabyte.huff;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+
+// A RandomSource that any number of threads can draw from at once.
+//
+// Every thread gets its own generator the first time it draws. Each of these is
+// split() off a shared root, so no two threads share a stream. Draws
+// touch only thread-owned state, with no locks or CAS. The split is made by the
+// thread that will use it, so the copy lands in that thread's allocation buffer
+// rather than next to another thread's generator.
+//
+// Checkpoints and serialization cover the root only. After a restore every
+// thread takes a new substream from the restored root, rather than carrying on
+// with the one it had.
+//
+// The root's split() must return the root's own class.
+public class ConcurrentRandomSource<S extends SplittableRandomSource & Checkpointable> implements RandomSource, Checkpointable {
+    private static final long serialVersionUID = 4480217396525162094L;
+
+    private final S root;
+
+    // Bumped on every reseed so threads know to fetch a fresh substream.
+    private volatile int epoch;
+
+    private transient ThreadLocal<Substream<S>> local = new ThreadLocal<Substream<S>>();
+
+    private static final class Substream<S> {
+        final S rng;
+        final int epoch;
+
+        Substream(S rng, int epoch) {
+            this.rng = rng;
+            this.epoch = epoch;
+        }
+    }
+
+    // Takes ownership of root; don't draw from it directly afterwards.
+    public ConcurrentRandomSource(S root) {
+        if (root == null) {
+            throw new IllegalArgumentException("root must not be null.");
+        }
+
+        this.root = root;
+    }
+
+    // The shared root. Only touch it while synchronized on this object, and
+    // call invalidate() after changing it.
+    protected final S root() {
+        return root;
+    }
+
+    // Sends every thread onto a fresh substream on its next draw. Callers
+    // must hold this object's lock.
+    protected final void invalidate() {
+        epoch++;
+    }
+
+    @Override
+    public int checkpointBytes() {
+        return root.checkpointBytes();
+    }
+
+    @Override
+    synchronized public void writeCheckpoint(ByteBuffer buffer) {
+        root.writeCheckpoint(buffer);
+    }
+
+    @Override
+    synchronized public void readCheckpoint(ByteBuffer buffer) throws IOException {
+        root.readCheckpoint(buffer);
+        epoch++;
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        local = new ThreadLocal<Substream<S>>();
+    }
+
+    @SuppressWarnings("unchecked")
+    synchronized private Substream<S> nextSubstream() {
+        return new Substream<S>((S) root.split(), epoch);
+    }
+
+    // Splits off the calling thread's substream now rather than on its first
+    // draw. The first split of all also works out the root's jump polynomial,
+    // the slow part, so threads that can't afford the pause call this early.
+    public void warmUp() {
+        current();
+    }
+
+    // Returns the calling thread's generator.
+    protected final S current() {
+        Substream<S> s = local.get();
+
+        if (s == null || s.epoch != epoch) {
+            s = nextSubstream();
+            local.set(s);
+        }
+
+        return s.rng;
+    }
+
+    public int nextInt() {
+        return current().nextInt();
+    }
+
+    public short nextShort() {
+        return current().nextShort();
+    }
+
+    public char nextChar() {
+        return current().nextChar();
+    }
+
+    public boolean nextBoolean() {
+        return current().nextBoolean();
+    }
+
+    // Generates a boolean with a probability of returning true.
+    public boolean nextBoolean(float probability) {
+        return current().nextBoolean(probability);
+    }
+
+    // Generates a boolean with a probability of returning true.
+    public boolean nextBoolean(double probability) {
+        return current().nextBoolean(probability);
+    }
+
+    public byte nextByte() {
+        return current().nextByte();
+    }
+
+    public void nextBytes(byte[] bytes) {
+        current().nextBytes(bytes);
+    }
+
+    public long nextLong() {
+        return current().nextLong();
+    }
+
+    // Returns a uniformly random number from 0 to n-1.
+    public long nextLong(long n) {
+        return current().nextLong(n);
+    }
+
+    // Returns a random double in the range [0.0, 1.0).
+    public double nextDouble() {
+        return current().nextDouble();
+    }
+
+    // Returns a double between 0.0 and 1.0, potentially inclusive.
+    public double nextDouble(boolean includeZero, boolean includeOne) {
+        return current().nextDouble(includeZero, includeOne);
+    }
+
+    public double nextGaussian() {
+        return current().nextGaussian();
+    }
+
+    // Returns an exponentially distributed double with rate 1 (mean 1).
+    public double nextExponential() {
+        return current().nextExponential();
+    }
+
+    // Returns a random float from [0.0f, 1.0f).
+    public float nextFloat() {
+        return current().nextFloat();
+    }
+
+    // Returns a float in the range from 0.0f to 1.0f, possibly inclusive of 0.0f and 1.0f themselves.
+    public float nextFloat(boolean includeZero, boolean includeOne) {
+        return current().nextFloat(includeZero, includeOne);
+    }
+
+    // Returns a uniformly random number from 0 to n-1.
+    public int nextInt(int n) {
+        return current().nextInt(n);
+    }
+
+    // Returns an integer drawn uniformly from a to b-1.
+    public int nextInt(int a, int b) {
+        return current().nextInt(a, b);
+    }
+
+    // Returns an integer drawn uniformly from a to b-1.
+    public long nextLong(long a, long b) {
+        return current().nextLong(a, b);
+    }
+
+    // Returns a floating-point number in the range of [a, b).
+    public float nextFloat(float a, float b) {
+        return current().nextFloat(a, b);
+    }
+
+    // Returns a double floating-point number in the range of [a, b).
+    public double nextDouble(double a, double b) {
+        return current().nextDouble(a, b);
+    }
+}
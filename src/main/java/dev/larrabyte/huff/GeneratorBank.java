@@ -0,0 +1,250 @@
+package dev.larrabyte.huff;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+// A fixed number of independent xoshiro128** streams (Blackman and Vigna,
+// 2018), for when every agent of a simulation wants its own generator.
+//
+// A MersenneTwister costs 2.5 KB of state plus its objects. Here a stream is
+// just 16 bytes in one direct buffer, laid out as four lanes (s0 of every
+// stream, then s1, s2 and s3), so there is nothing per stream on the heap and
+// fillAll() steps the whole bank in one pass over contiguous memory; see
+// BankKernel. Stream i + 1 starts 2^64 draws after stream i, so no two
+// streams overlap within that many draws each.
+//
+// Draws are 32 bits, and the period of each stream is 2^128 - 1. Streams
+// share no state, so different threads may draw from different streams at
+// once, but not from the same stream, and nothing may run alongside
+// fillAll(), setSeed() or reading a checkpoint.
+public final class GeneratorBank implements Checkpointable {
+    private static final long serialVersionUID = 2807451966303419185L;
+
+    // Most streams a bank can hold, so that its state record fits in a ByteBuffer.
+    public static final int MAX_STREAMS = (Integer.MAX_VALUE - StateFormat.HEADER_BYTES - 4 - StateFormat.TRAILER_BYTES) / 16;
+
+    // Polynomial for a 2^64 draw jump, from the reference code.
+    private static final int[] JUMP = { 0x8764000B, 0xF542D2D3, 0x6FA035C3, 0x77F2DB5B };
+
+    private final int streams;
+
+    // Byte offset between lanes. Stream i's sk is at 4 * i + k * stride.
+    private final int stride;
+
+    // Native order, so the lanes can be read as ints in place. Serialized
+    // as a state record; see writeObject().
+    private transient ByteBuffer state;
+
+    // Reused by every fillAll(); see BankKernel.newScratch().
+    private transient int[][] scratch;
+
+    // Constructor (uses time as the default seed).
+    public GeneratorBank(int streams) {
+        this(streams, System.currentTimeMillis());
+    }
+
+    // Constructor using a given seed (all 64 bits are used).
+    public GeneratorBank(int streams, long seed) {
+        if (streams <= 0 || streams > MAX_STREAMS) {
+            throw new IllegalArgumentException("streams must be between 1 and " + MAX_STREAMS + " inclusive, got: " + streams);
+        }
+
+        this.streams = streams;
+        this.stride = 4 * streams;
+        this.state = ByteBuffer.allocateDirect(16 * streams).order(ByteOrder.nativeOrder());
+        this.scratch = BankKernel.newScratch(streams);
+        setSeed(seed);
+    }
+
+    public int streams() {
+        return streams;
+    }
+
+    // Seeds stream 0 from SplitMix64, as the authors recommend, then each
+    // later stream by jumping the one before it. That is 128 steps per
+    // stream. SplitMix64 never outputs two zeros in a row, so the state is
+    // never all zeros.
+    public void setSeed(long seed) {
+        long x = seed;
+        long lo = mix(x += 0x9E3779B97F4A7C15L);
+        long hi = mix(x += 0x9E3779B97F4A7C15L);
+
+        int s0 = (int) lo, s1 = (int) (lo >>> 32), s2 = (int) hi, s3 = (int) (hi >>> 32);
+
+        for (int i = 0, p = 0; i < streams; i++, p += 4) {
+            state.putInt(p, s0);
+            state.putInt(p + stride, s1);
+            state.putInt(p + 2 * stride, s2);
+            state.putInt(p + 3 * stride, s3);
+
+            int t0 = 0, t1 = 0, t2 = 0, t3 = 0;
+
+            for (int word : JUMP) {
+                for (int b = 0; b < 32; b++) {
+                    if ((word & (1 << b)) != 0) {
+                        t0 ^= s0;
+                        t1 ^= s1;
+                        t2 ^= s2;
+                        t3 ^= s3;
+                    }
+
+                    int t = s1 << 9;
+                    s2 ^= s0;
+                    s3 ^= s1;
+                    s1 ^= s2;
+                    s0 ^= s3;
+                    s2 ^= t;
+                    s3 = Integer.rotateLeft(s3, 11);
+                }
+            }
+
+            s0 = t0;
+            s1 = t1;
+            s2 = t2;
+            s3 = t3;
+        }
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // Draws the next int from one stream.
+    public int nextInt(int stream) {
+        if (stream < 0 || stream >= streams) {
+            throw new IndexOutOfBoundsException("stream must be between 0 and " + (streams - 1) + ", got: " + stream);
+        }
+
+        final ByteBuffer state = this.state;
+        int p = 4 * stream;
+
+        int s0 = state.getInt(p);
+        int s1 = state.getInt(p + stride);
+        int s2 = state.getInt(p + 2 * stride);
+        int s3 = state.getInt(p + 3 * stride);
+
+        int result = Integer.rotateLeft(s1 * 5, 7) * 9;
+        int t = s1 << 9;
+
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+
+        state.putInt(p, s0);
+        state.putInt(p + stride, s1);
+        state.putInt(p + 2 * stride, s2);
+        state.putInt(p + 3 * stride, Integer.rotateLeft(s3, 11));
+
+        return result;
+    }
+
+    // Draws one int from every stream, stream i's going to out[i].
+    public void fillAll(int[] out) {
+        if (out.length < streams) {
+            throw new IllegalArgumentException("out must hold at least " + streams + " ints, got: " + out.length);
+        }
+
+        BankKernel.step(state, streams, out, scratch);
+    }
+
+    // Bytes written by writeState(ByteBuffer): header, stream count, the four
+    // lanes, checksum.
+    public int stateBytes() {
+        return StateFormat.HEADER_BYTES + 4 + 16 * streams + StateFormat.TRAILER_BYTES;
+    }
+
+    // Writes a checksummed state record at the buffer's position, in the buffer's byte order.
+    public void writeState(ByteBuffer buffer) {
+        if (buffer.remaining() < stateBytes()) {
+            throw new BufferOverflowException();
+        }
+
+        int start = buffer.position();
+
+        StateFormat.writeHeader(buffer, StateFormat.ENGINE_GENERATOR_BANK);
+        buffer.putInt(streams);
+        buffer.asIntBuffer().put(state.asIntBuffer());
+        buffer.position(buffer.position() + 16 * streams);
+        StateFormat.writeChecksum(buffer, start);
+    }
+
+    // Reads a record written by writeState(ByteBuffer), whatever byte order it
+    // was written in. The record must hold as many streams as this bank.
+    // Nothing changes unless the whole record checks out.
+    public void readState(ByteBuffer buffer) throws IOException {
+        ByteOrder order = buffer.order();
+        ByteOrder stored = StateFormat.readHeader(buffer, StateFormat.ENGINE_GENERATOR_BANK, stateBytes());
+
+        try {
+            buffer.order(stored);
+
+            int count = buffer.getInt();
+
+            if (count != streams) {
+                throw new IOException("State record holds " + count + " streams, expected " + streams);
+            }
+
+            IntBuffer lanes = buffer.asIntBuffer();
+            lanes.limit(4 * streams);
+
+            for (int i = 0; i < streams; i++) {
+                if ((lanes.get(i) | lanes.get(i + streams) | lanes.get(i + 2 * streams) | lanes.get(i + 3 * streams)) == 0) {
+                    throw new IOException("Corrupt generator bank state record (stream " + i + " is all zeros).");
+                }
+            }
+
+            state.asIntBuffer().put(lanes);
+            buffer.position(buffer.position() + 16 * streams + StateFormat.TRAILER_BYTES);
+        } finally {
+            buffer.order(order);
+        }
+    }
+
+    @Override
+    public int checkpointBytes() {
+        return stateBytes();
+    }
+
+    @Override
+    public void writeCheckpoint(ByteBuffer buffer) {
+        writeState(buffer);
+    }
+
+    @Override
+    public void readCheckpoint(ByteBuffer buffer) throws IOException {
+        readState(buffer);
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+
+        ByteBuffer record = ByteBuffer.allocate(stateBytes());
+        writeState(record);
+        out.write(record.array());
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+
+        if (streams <= 0 || streams > MAX_STREAMS || stride != 4 * streams) {
+            throw new InvalidObjectException("Bad stream count: " + streams);
+        }
+
+        byte[] record = new byte[stateBytes()];
+        in.readFully(record);
+
+        state = ByteBuffer.allocateDirect(16 * streams).order(ByteOrder.nativeOrder());
+        scratch = BankKernel.newScratch(streams);
+        readState(ByteBuffer.wrap(record));
+    }
+}
@@ -0,0 +1,306 @@
+package dev.larrabyte.huff;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// GF(2) polynomial arithmetic for jumping an F2-linear generator ahead, after
+// Haramoto et al., "Efficient Jump Ahead for F2-Linear Random Number Generators".
+//
+// Advancing n steps is multiplication of the state by A^n, where A is the
+// transition matrix. If p(t) annihilates A, then A^n = g(A) with g = t^n mod p.
+// One instance holds p and the t^n polynomials already worked out for it; the
+// engine's own jump class finds p and applies g(A) to a state.
+final class JumpPolynomials {
+    // Most recently used t^n polynomials for power(n), keyed by n.
+    private static final int CACHE_SIZE = 16;
+
+    // Degree of the modulus, and the number of longs to hold a reduced polynomial.
+    private final int degree;
+    private final int words;
+
+    // REDUCE[v] holds v(t) * t^degree mod p for every byte v, so reduction
+    // can clear eight bits per pass instead of one.
+    private final long[][] reduce;
+
+    private final Map<Long, long[]> powers = new LinkedHashMap<Long, long[]>(CACHE_SIZE, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, long[]> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    // t^(2^k) polynomials, filled in order as larger jumps are requested.
+    private long[][] powersOfTwo = new long[0][];
+
+    // Takes the modulus p(t) as a bit array, bit i being the coefficient of t^i.
+    JumpPolynomials(long[] modulus) {
+        degree = bitLength(modulus) - 1;
+        words = (degree + 63) >>> 6;
+        reduce = reductionTable(modulus);
+    }
+
+    // Number of bits up to and including the highest set one.
+    static int bitLength(long[] a) {
+        for (int w = a.length - 1; w >= 0; w--) {
+            if (a[w] != 0) {
+                return (w << 6) + 64 - Long.numberOfLeadingZeros(a[w]);
+            }
+        }
+
+        return 0;
+    }
+
+    // Returns t^n mod p.
+    long[] power(long n) {
+        synchronized (powers) {
+            long[] cached = powers.get(n);
+            if (cached != null) return cached;
+        }
+
+        long[] result = new long[words];
+        result[0] = 1L;
+
+        for (int bit = 63 - Long.numberOfLeadingZeros(n); bit >= 0; bit--) {
+            result = squareMod(result);
+
+            if (((n >>> bit) & 0x1) != 0) {
+                result = multiplyByTMod(result);
+            }
+        }
+
+        synchronized (powers) {
+            powers.put(n, result);
+        }
+
+        return result;
+    }
+
+    // Returns t^(2^k) mod p.
+    synchronized long[] powerOfTwo(int k) {
+        if (k < powersOfTwo.length) {
+            return powersOfTwo[k];
+        }
+
+        long[][] grown = new long[k + 1][];
+        System.arraycopy(powersOfTwo, 0, grown, 0, powersOfTwo.length);
+
+        for (int i = powersOfTwo.length; i <= k; i++) {
+            if (i == 0) {
+                grown[0] = new long[words];
+                grown[0][0] = 0x2L;
+            } else {
+                grown[i] = squareMod(grown[i - 1]);
+            }
+        }
+
+        powersOfTwo = grown;
+        return grown[k];
+    }
+
+    // (a * a) mod p. Squaring over GF(2) just spreads the bits out.
+    private long[] squareMod(long[] a) {
+        long[] wide = new long[2 * words];
+
+        for (int i = 0; i < words; i++) {
+            wide[2 * i] = spread((int) a[i]);
+            wide[2 * i + 1] = spread((int) (a[i] >>> 32));
+        }
+
+        return reduce(wide);
+    }
+
+    // (a * t) mod p.
+    private long[] multiplyByTMod(long[] a) {
+        long[] wide = new long[words + 1];
+
+        for (int i = 0; i < words; i++) {
+            wide[i] |= a[i] << 1;
+            wide[i + 1] = a[i] >>> 63;
+        }
+
+        return reduce(wide);
+    }
+
+    // Interleaves zeros between the 32 bits of x.
+    private static long spread(int x) {
+        long v = x & 0xFFFFFFFFL;
+        v = (v | (v << 16)) & 0x0000FFFF0000FFFFL;
+        v = (v | (v << 8)) & 0x00FF00FF00FF00FFL;
+        v = (v | (v << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | (v << 2)) & 0x3333333333333333L;
+        v = (v | (v << 1)) & 0x5555555555555555L;
+        return v;
+    }
+
+    // Reduces a polynomial of any degree modulo p.
+    private long[] reduce(long[] a) {
+        for (int s = degree + (((a.length * 64 - degree) + 7) & ~7) - 8; s >= degree; s -= 8) {
+            int v = (int) bitsAt(a, s) & 0xFF;
+
+            if (v != 0) {
+                // Swap v(t) * t^s for its reduced form, shifted into place.
+                a[s >>> 6] ^= (long) v << (s & 63);
+                if ((s & 63) > 56 && (s >>> 6) + 1 < a.length) {
+                    a[(s >>> 6) + 1] ^= (long) v >>> (64 - (s & 63));
+                }
+
+                xorShifted(a, reduce[v], s - degree);
+            }
+        }
+
+        long[] result = new long[words];
+        System.arraycopy(a, 0, result, 0, words);
+
+        if ((degree & 63) != 0) {
+            result[words - 1] &= (1L << (degree & 63)) - 1;
+        }
+
+        return result;
+    }
+
+    private long[][] reductionTable(long[] p) {
+        long[][] table = new long[256][];
+        table[0] = new long[words];
+
+        // t^degree mod p is just p without its leading term.
+        long[] tail = new long[words + 1];
+        System.arraycopy(p, 0, tail, 0, Math.min(p.length, words + 1));
+        tail[degree >>> 6] ^= 1L << (degree & 63);
+
+        // Reduce t^degree .. t^(degree + 7) one step at a time.
+        long[] basis = tail;
+
+        for (int bit = 0; bit < 8; bit++) {
+            long[] reduced = new long[words];
+            System.arraycopy(basis, 0, reduced, 0, words);
+            table[1 << bit] = reduced;
+
+            long[] next = new long[words + 1];
+            for (int i = 0; i < words; i++) {
+                next[i] |= reduced[i] << 1;
+                next[i + 1] = reduced[i] >>> 63;
+            }
+
+            if (((next[degree >>> 6] >>> (degree & 63)) & 0x1) != 0) {
+                next[degree >>> 6] ^= 1L << (degree & 63);
+                for (int i = 0; i < words; i++) {
+                    next[i] ^= tail[i];
+                }
+            }
+
+            basis = next;
+        }
+
+        // Everything else is a sum of the single-bit entries.
+        for (int v = 1; v < 256; v++) {
+            if (table[v] == null) {
+                int low = v & -v;
+                long[] sum = table[low].clone();
+                long[] rest = table[v ^ low];
+
+                for (int i = 0; i < words; i++) {
+                    sum[i] ^= rest[i];
+                }
+
+                table[v] = sum;
+            }
+        }
+
+        return table;
+    }
+
+    // dst ^= src << shift, for bit arrays.
+    private static void xorShifted(long[] dst, long[] src, int shift) {
+        int words = shift >>> 6;
+        int bits = shift & 63;
+
+        if (bits == 0) {
+            for (int i = 0; i < src.length && i + words < dst.length; i++) {
+                dst[i + words] ^= src[i];
+            }
+        } else {
+            long carry = 0;
+
+            for (int i = 0; i < src.length && i + words < dst.length; i++) {
+                dst[i + words] ^= (src[i] << bits) | carry;
+                carry = src[i] >>> (64 - bits);
+            }
+
+            if (src.length + words < dst.length) {
+                dst[src.length + words] ^= carry;
+            }
+        }
+    }
+
+    // Berlekamp-Massey: returns the minimal polynomial of the bit sequence
+    // s[0 .. length) times t^shift, where s[i] is bit i of sequence. Taking
+    // length to be twice the expected degree makes the result exact.
+    static long[] minimalPolynomial(long[] sequence, int length, int shift) {
+        // Stored reversed: bit j of rev is s[length - 1 - j].
+        long[] rev = new long[(length + 63) >>> 6];
+
+        for (int i = 0; i < length; i++) {
+            if (((sequence[i >>> 6] >>> (i & 63)) & 0x1) != 0) {
+                int j = length - 1 - i;
+                rev[j >>> 6] |= 1L << (j & 63);
+            }
+        }
+
+        int words = ((length >>> 1) + 64) >>> 6;
+        long[] c = new long[words + 1];
+        long[] b = new long[words + 1];
+        long[] t = new long[words + 1];
+        c[0] = 1L;
+        b[0] = 1L;
+
+        int l = 0;
+        int m = 1;
+
+        for (int n = 0; n < length; n++) {
+            // Discrepancy: parity of sum c[i] * s[n - i] for i in 0..l.
+            int offset = length - 1 - n;
+            long d = 0;
+
+            for (int w = 0; w <= (l >>> 6); w++) {
+                d ^= c[w] & bitsAt(rev, offset + (w << 6));
+            }
+
+            if ((Long.bitCount(d) & 0x1) == 0) {
+                m++;
+            } else if (2 * l <= n) {
+                System.arraycopy(c, 0, t, 0, c.length);
+                xorShifted(c, b, m);
+                l = n + 1 - l;
+                System.arraycopy(t, 0, b, 0, b.length);
+                m = 1;
+            } else {
+                xorShifted(c, b, m);
+                m++;
+            }
+        }
+
+        // The polynomial is sum c[i] * t^(l - i); the shift moves everything up.
+        long[] result = new long[(l + shift + 64) >>> 6];
+
+        for (int i = 0; i <= l; i++) {
+            if (((c[i >>> 6] >>> (i & 63)) & 0x1) != 0) {
+                int j = l - i + shift;
+                result[j >>> 6] |= 1L << (j & 63);
+            }
+        }
+
+        return result;
+    }
+
+    // Returns the 64 bits of a starting at bit index from (zero past the end).
+    private static long bitsAt(long[] a, int from) {
+        int word = from >>> 6;
+        int bits = from & 63;
+
+        long lo = word < a.length ? a[word] >>> bits : 0;
+        long hi = bits != 0 && word + 1 < a.length ? a[word + 1] << (64 - bits) : 0;
+        return lo | hi;
+    }
+}
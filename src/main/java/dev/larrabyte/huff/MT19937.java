@@ -0,0 +1,18 @@
+package dev.larrabyte.huff;
+
+// Service provider for java.util.random.RandomGenerator on Java 17 and newer,
+// listed in META-INF/services. RandomGeneratorFactory names providers after
+// their simple class name, so RandomGenerator.of("MT19937") finds this class.
+// Random already implements RandomGenerator there, and on Java 8 the service
+// file is simply never read.
+public class MT19937 extends MersenneTwisterRandom {
+    private static final long serialVersionUID = -1180345239043585296L;
+
+    public MT19937() {
+        super(new MersenneTwister());
+    }
+
+    public MT19937(long seed) {
+        super(new MersenneTwister(seed));
+    }
+}
@@ -1,20 +1,101 @@
 package dev.larrabyte.huff;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.fml.common.Mod.EventHandler;
 import net.minecraftforge.fml.common.event.FMLInitializationEvent;
+import net.minecraftforge.fml.common.event.FMLPreInitializationEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.ClientTickEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+
+import org.apache.logging.log4j.Logger;
 
 @Mod(modid="huff", version="probably", useMetadata=true)
 public class Main {
     // Mod-wide objects (basically, we don't need more RNGs).
-    public static final MersenneTwister rand = new MersenneTwister();
+    // The engine behind rand is picked with -Dhuff.rng=mt19937|sfmt19937|mt19937-64|xoshiro256**|pcg64|philox4x32.
+    // rand used to be a plain MersenneTwister; it's a ConcurrentRandomSource now
+    // so every thread draws from its own substream. Code that needs the
+    // MersenneTwister-only methods should keep a MersenneTwister of its own.
+    public static final ConcurrentRandomSource<?> rand = createRand(System.getProperty("huff.rng", "mt19937"));
     public static final ReachExtender reachExtender = new ReachExtender();
     public static final AutoClicker autoClicker = new AutoClicker();
 
+    // Snapshots of the objects above, taken every CHECKPOINT_TICKS client ticks.
+    private static final int CHECKPOINT_TICKS = 20 * 30;
+    private static CheckpointStore checkpoints;
+    private int ticksSinceCheckpoint;
+
+    private static ConcurrentRandomSource<?> createRand(String engine) {
+        switch(engine.toLowerCase(Locale.ROOT)) {
+            case "mt19937":
+                return new ConcurrentMersenneTwister();
+            case "sfmt19937":
+                return new ConcurrentRandomSource<SfmtTwister>(new SfmtTwister());
+            case "mt19937-64":
+                return new ConcurrentRandomSource<MersenneTwister64>(new MersenneTwister64());
+            case "xoshiro256**":
+            case "xoshiro256starstar":
+                return new ConcurrentRandomSource<Xoshiro256StarStar>(new Xoshiro256StarStar());
+            case "pcg64":
+                return new ConcurrentRandomSource<Pcg64>(new Pcg64());
+            case "philox4x32":
+                return new ConcurrentRandomSource<Philox4x32>(new Philox4x32());
+            default:
+                throw new IllegalArgumentException("Unknown random engine in huff.rng: " + engine);
+        }
+    }
+
+    @EventHandler
+    public void preInit(FMLPreInitializationEvent event) {
+        Logger log = event.getModLog();
+        File file = new File(event.getModConfigurationDirectory(), "huff.checkpoint");
+        CheckpointStore store = new CheckpointStore(file.toPath());
+        store.register(rand);
+        store.register(autoClicker);
+
+        try {
+            int restored = store.open();
+            log.info("Restored {} objects from {}", restored, file);
+        } catch (IOException e) {
+            log.warn("Couldn't open the checkpoint file, state won't be kept across restarts.", e);
+            return;
+        } finally {
+            // This is the client thread, so split its substream (and work out
+            // the jump polynomial) now instead of on the first tick that draws.
+            // After the restore, so the restored root is what gets split.
+            rand.warmUp();
+        }
+
+        // Lets a snapshot already being written finish; no new one is taken off the game thread.
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                store.close();
+            } catch (IOException e) {
+                // Nothing useful left to do this late.
+            }
+        }, "huff-checkpoint-close"));
+
+        checkpoints = store;
+    }
+
     @EventHandler
     public void init(FMLInitializationEvent event) {
         MinecraftForge.EVENT_BUS.register(reachExtender);
         MinecraftForge.EVENT_BUS.register(autoClicker);
+        MinecraftForge.EVENT_BUS.register(this);
+    }
+
+    @SubscribeEvent
+    public void onClientTick(ClientTickEvent event) {
+        if(event.phase == Phase.END && checkpoints != null && ++ticksSinceCheckpoint >= CHECKPOINT_TICKS) {
+            ticksSinceCheckpoint = 0;
+            checkpoints.snapshot();
+        }
     }
 }
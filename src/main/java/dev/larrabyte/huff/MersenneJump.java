@@ -0,0 +1,108 @@
+package dev.larrabyte.huff;
+
+// Jumping an MT19937 state ahead (see JumpPolynomials for the method).
+//
+// The characteristic polynomial phi(t) of MT19937 only covers the 19937
+// significant bits of state. The 31 ignored low bits of the oldest word are
+// killed by one extra step, so we reduce modulo t * phi(t) instead. That keeps
+// every word of the array exact, not just the significant ones. Applying g(A)
+// takes about 20000 single steps of the recurrence.
+final class MersenneJump {
+    private static final int N = 624;
+    private static final int M = 397;
+    private static final int MATRIX_A = 0x9908B0DF;
+    private static final int UPPER_MASK = 0x80000000;
+    private static final int LOWER_MASK = 0x7FFFFFFF;
+
+    // Degree of phi(t), i.e. the Mersenne exponent.
+    private static final int MEXP = 19937;
+
+    private MersenneJump() {}
+
+    // The modulus is only derived when a jump is first requested.
+    private static final class Modulus {
+        static final JumpPolynomials POLYNOMIALS = new JumpPolynomials(characteristicPolynomialTimesT());
+    }
+
+    // Returns t^n mod t * phi(t).
+    static long[] power(long n) {
+        return Modulus.POLYNOMIALS.power(n);
+    }
+
+    // Returns t^(2^k) mod t * phi(t).
+    static long[] powerOfTwo(int k) {
+        return Modulus.POLYNOMIALS.powerOfTwo(k);
+    }
+
+    // Replaces the 624-word window in mt with g(A) applied to it.
+    static void apply(int[] mt, long[] g) {
+        int[] work = mt.clone();
+        int[] acc = new int[N];
+        int p = 0;
+
+        for (int i = 0, top = JumpPolynomials.bitLength(g); i < top; i++) {
+            if (((g[i >>> 6] >>> (i & 63)) & 0x1) != 0) {
+                // Add the current window (oldest word at p) into the accumulator.
+                for (int j = p; j < N; j++) {
+                    acc[j - p] ^= work[j];
+                }
+
+                for (int j = 0; j < p; j++) {
+                    acc[N - p + j] ^= work[j];
+                }
+            }
+
+            p = step(work, p);
+        }
+
+        System.arraycopy(acc, 0, mt, 0, N);
+    }
+
+    // One incremental step of the recurrence on a rotating window.
+    static int step(int[] work, int p) {
+        int q = p + 1 == N ? 0 : p + 1;
+        int r = p + M < N ? p + M : p + M - N;
+
+        int y = (work[p] & UPPER_MASK) | (work[q] & LOWER_MASK);
+        work[p] = work[r] ^ (y >>> 1) ^ (-(y & 0x1) & MATRIX_A);
+
+        return q;
+    }
+
+    // Finds phi(t) from the top bit of 2 * MEXP generated words, then
+    // multiplies it by t.
+    private static long[] characteristicPolynomialTimesT() {
+        int length = 2 * MEXP;
+        int[] work = new int[N];
+
+        // Any state works, as long as the sampled words come out of the recurrence.
+        work[0] = 5489;
+        for (int i = 1; i < N; i++) {
+            work[i] = 1812433253 * (work[i - 1] ^ (work[i - 1] >>> 30)) + i;
+        }
+
+        int p = 0;
+        for (int i = 0; i < N; i++) {
+            p = step(work, p);
+        }
+
+        long[] sequence = new long[(length + 63) >>> 6];
+
+        for (int i = 0; i < length; i++) {
+            int index = p;
+            p = step(work, p);
+
+            if ((work[index] >>> 31) != 0) {
+                sequence[i >>> 6] |= 1L << (i & 63);
+            }
+        }
+
+        long[] result = JumpPolynomials.minimalPolynomial(sequence, length, 1);
+
+        if (JumpPolynomials.bitLength(result) != MEXP + 2) {
+            throw new IllegalStateException("Unexpected linear complexity: " + (JumpPolynomials.bitLength(result) - 2));
+        }
+
+        return result;
+    }
+}
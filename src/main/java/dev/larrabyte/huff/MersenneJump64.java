@@ -0,0 +1,105 @@
+package dev.larrabyte.huff;
+
+// Jumping an MT19937-64 state ahead (see JumpPolynomials for the method).
+//
+// As with MT19937, only the top 33 bits of the oldest word feed the
+// recurrence, so the 31 ignored ones are killed with one extra step and the
+// modulus is t * phi(t).
+final class MersenneJump64 {
+    private static final int N = 312;
+    private static final int M = 156;
+    private static final long MATRIX_A = 0xB5026F5AA96619E9L;
+    private static final long UPPER_MASK = 0xFFFFFFFF80000000L;
+    private static final long LOWER_MASK = 0x7FFFFFFFL;
+
+    // Degree of phi(t), i.e. the Mersenne exponent.
+    private static final int MEXP = 19937;
+
+    private MersenneJump64() {}
+
+    // The modulus is only derived when a jump is first requested.
+    private static final class Modulus {
+        static final JumpPolynomials POLYNOMIALS = new JumpPolynomials(characteristicPolynomialTimesT());
+    }
+
+    // Returns t^(2^k) mod t * phi(t).
+    static long[] powerOfTwo(int k) {
+        return Modulus.POLYNOMIALS.powerOfTwo(k);
+    }
+
+    // Returns t^n mod t * phi(t).
+    static long[] power(long n) {
+        return Modulus.POLYNOMIALS.power(n);
+    }
+
+    // Replaces the 312-word window in mt with g(A) applied to it.
+    static void apply(long[] mt, long[] g) {
+        long[] work = mt.clone();
+        long[] acc = new long[N];
+        int p = 0;
+
+        for (int i = 0, top = JumpPolynomials.bitLength(g); i < top; i++) {
+            if (((g[i >>> 6] >>> (i & 63)) & 0x1) != 0) {
+                for (int j = p; j < N; j++) {
+                    acc[j - p] ^= work[j];
+                }
+
+                for (int j = 0; j < p; j++) {
+                    acc[N - p + j] ^= work[j];
+                }
+            }
+
+            p = step(work, p);
+        }
+
+        System.arraycopy(acc, 0, mt, 0, N);
+    }
+
+    // One incremental step of the recurrence on a rotating window.
+    static int step(long[] work, int p) {
+        int q = p + 1 == N ? 0 : p + 1;
+        int r = p + M < N ? p + M : p + M - N;
+
+        long x = (work[p] & UPPER_MASK) | (work[q] & LOWER_MASK);
+        work[p] = work[r] ^ (x >>> 1) ^ (-(x & 0x1L) & MATRIX_A);
+
+        return q;
+    }
+
+    // Finds phi(t) from the top bit of 2 * MEXP generated words, then
+    // multiplies it by t.
+    private static long[] characteristicPolynomialTimesT() {
+        int length = 2 * MEXP;
+        long[] work = new long[N];
+
+        // Any state works, as long as the sampled words come out of the recurrence.
+        work[0] = 5489L;
+        for (int i = 1; i < N; i++) {
+            work[i] = 6364136223846793005L * (work[i - 1] ^ (work[i - 1] >>> 62)) + i;
+        }
+
+        int p = 0;
+        for (int i = 0; i < N; i++) {
+            p = step(work, p);
+        }
+
+        long[] sequence = new long[(length + 63) >>> 6];
+
+        for (int i = 0; i < length; i++) {
+            int index = p;
+            p = step(work, p);
+
+            if ((work[index] >>> 63) != 0) {
+                sequence[i >>> 6] |= 1L << (i & 63);
+            }
+        }
+
+        long[] result = JumpPolynomials.minimalPolynomial(sequence, length, 1);
+
+        if (JumpPolynomials.bitLength(result) != MEXP + 2) {
+            throw new IllegalStateException("Unexpected linear complexity: " + (JumpPolynomials.bitLength(result) - 2));
+        }
+
+        return result;
+    }
+}
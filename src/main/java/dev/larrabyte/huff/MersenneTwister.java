@@ -2,34 +2,144 @@ package dev.larrabyte.huff;
 
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
-
-public strictfp class MersenneTwister implements Persistable, Cloneable {
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+// MT19937 (Matsumoto and Nishimura, 1998).
+//
+// Instances are not thread-safe and take no locks, reseeding included. Give
+// each generator a single owner at a time, and publish it safely when handing
+// it to another thread. ConcurrentMersenneTwister is the thread-safe option.
+public strictfp class MersenneTwister implements SplittableRandomSource, Checkpointable, Cloneable {
     private static final long serialVersionUID = -8219700664442619525L;
 
     // Period parameters.
     private static final int N = 624;
     private static final int M = 397;
     private static final int MATRIX_A = 0x9908B0DF;
-    private static final int UPPER_MASK = 0x80000000;
-    private static final int LOWER_MASK = 0x7FFFFFFF;
 
     // Tempering parameters.
     private static final int TEMPERING_MASK_B = 0x9D2C5680;
     private static final int TEMPERING_MASK_C = 0xEFC60000;
 
-    private int mt[];
+    // Distance of jump() as a power of two, and the point where discard()
+    // switches from stepping the state to using a jump polynomial.
+    private static final int JUMP_LOG2 = 128;
+    static final long DISCARD_JUMP_THRESHOLD = 1L << 24;
+
+    // Size of a record written by writeState(ByteBuffer): header, mti, the
+    // spare Gaussian flag and value, the state array, then the checksum.
+    public static final int STATE_BYTES = StateFormat.HEADER_BYTES + 16 + 4 * N + StateFormat.TRAILER_BYTES;
+
+    // Longest run of draws the compact serial form will replay on reading,
+    // about 1.5 ms of twisting once warmed up. Anything further on is written
+    // out in full.
+    private static final long COMPACT_MAX_DRAWS = 1L << 20;
+
+    // Elements per chunk for fillParallel() when no size is given. Every chunk
+    // past the first costs a jump, which is about as much work as drawing a
+    // million words, so chunks need to be at least that big to pay off.
+    private static final int PARALLEL_CHUNK = 1 << 20;
+
+    // Words regenerated at a time in incremental mode (divides N).
+    private static final int TWIST_CHUNK = 16;
+
+    // Null until first needed when the generator was created lazily. Never
+    // serialized directly; see writeObject().
+    private transient int mt[];
     private int mti;
-    private int mag01[];
+
+    // Words of the current generation regenerated so far. Always N in block
+    // mode; in incremental mode it runs ahead of mti a chunk at a time.
+    private transient int limit = N;
+
+    // The last scalar seed. It also seeds a lazily created generator whose
+    // state hasn't been built yet.
+    private long seed;
+
+    // While positionKnown holds, the state is exactly the scalar seed moved on
+    // by twists full regenerations plus skipped discarded words. Array seeds,
+    // jumps and state reads lose track.
+    private transient long twists;
+    private transient long skipped;
+    private transient boolean positionKnown;
+
+    // init_genrand(19650218), the starting point of every array seed.
+    private static final int[] ARRAY_SEED_BASE = new int[N];
+
+    static {
+        initGenrand(ARRAY_SEED_BASE, 19650218);
+    }
+
+    // No longer used by twist(), but still part of the state stream format.
+    // Rebuilt rather than serialized.
+    private transient int mag01[];
 
     private double nextNextGaussian;
     private boolean haveNextNextGaussian;
 
+    // How nextGaussian() turns uniform words into normal deviates.
+    public enum GaussianMethod {
+        // Marsaglia's polar method, as in java.util.Random. Kept so old seeds reproduce.
+        POLAR,
+        // Marsaglia and Tsang's Ziggurat: usually one word and one table lookup per deviate.
+        ZIGGURAT
+    }
+
+    private GaussianMethod gaussianMethod = GaussianMethod.ZIGGURAT;
+
+    // How nextInt(int) and nextLong(long) reduce a word to [0, n).
+    public enum BoundedMethod {
+        // Modulo with rejection, as in java.util.Random. The default, so existing seeds reproduce.
+        MODULO,
+        // Lemire's multiply-shift, "Fast Random Integer Generation in an Interval" (2019).
+        // Just as uniform, but only divides on the rare rejection path. Different output.
+        LEMIRE
+    }
+
+    private BoundedMethod boundedMethod = BoundedMethod.MODULO;
+
+    // When the state is regenerated. Both give exactly the same output.
+    public enum TwistMode {
+        // All N words at once every N draws: cheapest overall, but one draw in N is slow.
+        BLOCK,
+        // TWIST_CHUNK words every TWIST_CHUNK draws, so no draw waits on a whole twist.
+        INCREMENTAL
+    }
+
+    private TwistMode twistMode = TwistMode.BLOCK;
+
+    // Unused bits of the last word taken by nextBits(), most significant first.
+    // Not part of the state stream, so reseeding or reading state empties it.
+    private int bitPool;
+    private int bitsLeft;
+    private boolean bitPooling;
+
     public Object clone() {
         try {
             MersenneTwister f = (MersenneTwister) super.clone();
-            f.mag01 = (int[]) mag01.clone();
-            f.mt = (int[]) mt.clone();
+
+            if (mt != null) {
+                f.mag01 = (int[]) mag01.clone();
+                f.mt = (int[]) mt.clone();
+            }
+
             return f;
         } catch (CloneNotSupportedException e) {
             // This should never happen!
@@ -42,6 +152,10 @@ public strictfp class MersenneTwister implements Persistable, Cloneable {
         if (o == null || !(o instanceof MersenneTwister)) return false;
 
         MersenneTwister other = (MersenneTwister) o;
+        int[] mt = state();
+        other.state();
+        finishTwist();
+        other.finishTwist();
         if (mti != other.mti) return false;
 
         for (int x = 0; x < mag01.length; x++) {
@@ -57,6 +171,8 @@ public strictfp class MersenneTwister implements Persistable, Cloneable {
 
     // Reads the state of a Mersenne Twister from an input stream.
     public void readState(DataInputStream stream) throws IOException {
+        allocate();
+
         for (int x = 0; x < mt.length; x++) {
             mt[x] = stream.readInt();
         }
@@ -66,12 +182,18 @@ public strictfp class MersenneTwister implements Persistable, Cloneable {
         }
 
         mti = stream.readInt();
+        limit = N;
         nextNextGaussian = stream.readDouble();
         haveNextNextGaussian = stream.readBoolean();
+        bitsLeft = 0;
+        positionKnown = false;
     }
 
     // Writes the state of the Mersenne Twister to an output stream.
     public void writeState(DataOutputStream stream) throws IOException {
+        int[] mt = state();
+        finishTwist();
+
         for (int x = 0; x < mt.length; x++) {
             stream.writeInt(mt[x]);
         }
@@ -85,6 +207,221 @@ public strictfp class MersenneTwister implements Persistable, Cloneable {
         stream.writeBoolean(haveNextNextGaussian);
     }
 
+    // Writes a checksummed state record at the buffer's position, in the
+    // buffer's byte order. mag01 isn't stored; it never changes.
+    public void writeState(ByteBuffer buffer) {
+        if (buffer.remaining() < STATE_BYTES) {
+            throw new BufferOverflowException();
+        }
+
+        int[] mt = state();
+        finishTwist();
+        int start = buffer.position();
+
+        StateFormat.writeHeader(buffer, StateFormat.ENGINE_MT19937);
+        buffer.putInt(mti);
+        buffer.putInt(haveNextNextGaussian ? 1 : 0);
+        buffer.putDouble(nextNextGaussian);
+        buffer.asIntBuffer().put(mt);
+        buffer.position(buffer.position() + 4 * N);
+        StateFormat.writeChecksum(buffer, start);
+    }
+
+    // Reads a record written by writeState(ByteBuffer), whatever byte order it
+    // was written in. Nothing changes unless the whole record checks out.
+    public void readState(ByteBuffer buffer) throws IOException {
+        ByteOrder order = buffer.order();
+        ByteOrder stored = StateFormat.readHeader(buffer, StateFormat.ENGINE_MT19937, STATE_BYTES);
+
+        try {
+            buffer.order(stored);
+
+            int index = buffer.getInt();
+            int flag = buffer.getInt();
+            double gaussian = buffer.getDouble();
+
+            if (index < 0 || index > N || (flag & ~0x1) != 0) {
+                throw new IOException("Corrupt MT19937 state record (mti: " + index + ", flag: " + flag + ")");
+            }
+
+            allocate();
+            buffer.asIntBuffer().get(mt);
+            buffer.position(buffer.position() + 4 * N + StateFormat.TRAILER_BYTES);
+
+            mti = index;
+            limit = N;
+            haveNextNextGaussian = flag != 0;
+            nextNextGaussian = gaussian;
+            bitsLeft = 0;
+            positionKnown = false;
+        } finally {
+            buffer.order(order);
+        }
+    }
+
+    @Override
+    public int checkpointBytes() {
+        return STATE_BYTES;
+    }
+
+    @Override
+    public void writeCheckpoint(ByteBuffer buffer) {
+        writeState(buffer);
+    }
+
+    @Override
+    public void readCheckpoint(ByteBuffer buffer) throws IOException {
+        readState(buffer);
+    }
+
+    // Writes a state record to a channel (e.g. a FileChannel) at its current position.
+    public void writeState(WritableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(STATE_BYTES).order(ByteOrder.nativeOrder());
+        writeState(buffer);
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // Reads one state record from a channel at its current position.
+    public void readState(ReadableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(STATE_BYTES);
+
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Channel ended " + buffer.remaining() + " bytes into a state record.");
+            }
+        }
+
+        buffer.flip();
+        readState(buffer);
+    }
+
+    // Number of words drawn since the last scalar seed, or -1 if that isn't
+    // known or is too far along for the compact serial form.
+    private long drawCount() {
+        if (!positionKnown) {
+            return -1;
+        }
+
+        long draws = twists * N + mti - N + skipped;
+        return draws >= 0 && draws <= COMPACT_MAX_DRAWS ? draws : -1;
+    }
+
+    // Serial form: the default fields (mti, the scalar seed, the spare
+    // Gaussian, modes and bit pool), then either the number of draws since the
+    // scalar seed or, failing that, the full state array. Each compact
+    // instance adds about 60 bytes to a stream rather than about 2.6 KB; a
+    // lone one still comes to some 640 bytes, most of that the class
+    // descriptors, which a stream writes only once however many generators
+    // share it.
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        long draws = drawCount();
+        out.defaultWriteObject();
+        out.writeBoolean(draws >= 0);
+
+        if (draws >= 0) {
+            out.writeLong(draws);
+        } else {
+            int[] mt = state();
+            finishTwist();
+
+            for (int x = 0; x < N; x++) {
+                out.writeInt(mt[x]);
+            }
+        }
+    }
+
+    // Reads both the serial form above and the original one, which had the
+    // same serialVersionUID but carried mt and mag01 as plain fields and
+    // nothing after them. Fields missing from older streams take the values
+    // the class had before they existed.
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+
+        mti = fields.get("mti", 0);
+        seed = fields.get("seed", 0L);
+        nextNextGaussian = fields.get("nextNextGaussian", 0.0);
+        haveNextNextGaussian = fields.get("haveNextNextGaussian", false);
+        gaussianMethod = (GaussianMethod) fields.get("gaussianMethod", GaussianMethod.POLAR);
+        boundedMethod = (BoundedMethod) fields.get("boundedMethod", BoundedMethod.MODULO);
+        twistMode = (TwistMode) fields.get("twistMode", TwistMode.BLOCK);
+        bitPool = fields.get("bitPool", 0);
+        bitsLeft = fields.get("bitsLeft", 0);
+        bitPooling = fields.get("bitPooling", false);
+        limit = N;
+
+        if (gaussianMethod == null || boundedMethod == null || twistMode == null) {
+            throw new InvalidObjectException("Missing generator mode.");
+        }
+
+        if (fields.getObjectStreamClass().getField("mt") != null) {
+            installState((int[]) fields.get("mt", null));
+        } else if (in.readBoolean()) {
+            long draws = in.readLong();
+
+            if (draws < 0) {
+                throw new InvalidObjectException("Negative draw count: " + draws);
+            }
+
+            // Reseeding and replaying clear these, so put them back afterwards.
+            double gaussian = nextNextGaussian;
+            boolean haveGaussian = haveNextNextGaussian;
+            int pool = bitPool;
+            int left = bitsLeft;
+
+            // A generator that hadn't been drawn from may still be lazy, so leave it that way.
+            setSeed(seed);
+
+            if (draws > 0) {
+                discard(draws);
+            }
+
+            nextNextGaussian = gaussian;
+            haveNextNextGaussian = haveGaussian;
+            bitPool = pool;
+            bitsLeft = left;
+        } else {
+            int[] state = new int[N];
+
+            for (int x = 0; x < N; x++) {
+                state[x] = in.readInt();
+            }
+
+            installState(state);
+        }
+
+        postDeSerialize();
+    }
+
+    // Installs a full state array read from a serial stream.
+    private void installState(int[] state) throws InvalidObjectException {
+        if (state == null || state.length != N) {
+            throw new InvalidObjectException("State array must hold " + N + " words.");
+        }
+
+        if (mti < 0 || mti > N) {
+            throw new InvalidObjectException("mti out of range: " + mti);
+        }
+
+        mt = state;
+    }
+
+    // Rebuilds mag01, which is constant and so left out of the serial form.
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T postDeSerialize() {
+        if (mt != null && mag01 == null) {
+            mag01 = new int[2];
+            mag01[0] = 0x0;
+            mag01[1] = MATRIX_A;
+        }
+
+        return (T) this;
+    }
+
     // Constructor (uses time as the default seed).
     public MersenneTwister() {
         this(System.currentTimeMillis());
@@ -92,7 +429,7 @@ public strictfp class MersenneTwister implements Persistable, Cloneable {
 
     // Constructor using a given seed (best if it remains within integer limits).
     public MersenneTwister(long seed) {
-        setSeed(seed);
+        this(seed, false);
     }
 
     // Constructor using an array of integers. Only the first 624 are used.
@@ -100,34 +437,85 @@ public strictfp class MersenneTwister implements Persistable, Cloneable {
         setSeed(array);
     }
 
+    // Constructor that only records the seed. The 2.5 KB state is built on
+    // the first draw, so generators that are never used cost next to nothing.
+    public MersenneTwister(long seed, boolean lazy) {
+        if (lazy) {
+            this.seed = seed;
+            mti = N;
+            positionKnown = true;
+        } else {
+            allocate();
+            setSeed(seed);
+        }
+    }
+
     // Initialise the pseudo-random number generator (only first 32-bits of the seed).
-    synchronized public void setSeed(long seed) {
+    // The existing state arrays are reused, and a generator that is still lazy stays lazy.
+    public void setSeed(long seed) {
         // Due to a bug in java.util.Random clear up to 1.2, we're doing our own Gaussian variable.
         haveNextNextGaussian = false;
+        bitsLeft = 0;
+        mti = N;
+        limit = N;
 
-        mt = new int[N];
-        mag01 = new int[2];
-        mag01[0] = 0x0;
-        mag01[1] = MATRIX_A;
+        this.seed = seed;
+        twists = 0;
+        skipped = 0;
+        positionKnown = true;
 
-        mt[0] = (int) (seed & 0xFFFFFFFF);
-        for (mti = 1; mti < N; mti++) {
-            mt[mti] = (1812433253 * (mt[mti - 1] ^ (mt[mti - 1] >>> 30)) + mti);
+        if (mt != null) {
+            initGenrand(mt, (int) seed);
         }
     }
 
+    private static void initGenrand(int[] mt, int seed) {
+        mt[0] = seed;
+        for (int i = 1; i < N; i++) {
+            mt[i] = (1812433253 * (mt[i - 1] ^ (mt[i - 1] >>> 30)) + i);
+        }
+    }
+
+    // Makes sure the state arrays exist, without filling them in.
+    private void allocate() {
+        if (mt == null) {
+            mt = new int[N];
+            mag01 = new int[2];
+            mag01[0] = 0x0;
+            mag01[1] = MATRIX_A;
+        }
+    }
+
+    // Returns the state array, building it from the pending seed first if needed.
+    private int[] state() {
+        if (mt == null) {
+            allocate();
+            initGenrand(mt, (int) seed);
+        }
+
+        return mt;
+    }
+
     // Sets the seed of the Mersenne Twister using an array of integers.
     // Only the first 624 integers in the array are used.
-    synchronized public void setSeed(int[] array) {
+    public void setSeed(int[] array) {
         if (array.length == 0) {
             throw new IllegalArgumentException("Array length must be greater than zero");
         }
 
+        haveNextNextGaussian = false;
+        bitsLeft = 0;
+        mti = N;
+        limit = N;
+        positionKnown = false;
+        allocate();
+
         // Dunno how this shit works,
         // pure maths from here on out.
+        final int[] mt = this.mt;
         int i = 1;
         int j = 0;
-        setSeed(19650218);
+        System.arraycopy(ARRAY_SEED_BASE, 0, mt, 0, N);
 
         for (int k = N > array.length ? N : array.length; k != 0; k--) {
             mt[i] = (mt[i] ^ ((mt[i - 1] ^ (mt[i - 1] >>> 30)) * 1664525)) + array[j] + j;
@@ -158,790 +546,784 @@ public strictfp class MersenneTwister implements Persistable, Cloneable {
         mt[0] = 0x80000000;
     }
 
-    public int nextInt() {
-        int y;
+    // Advances the generator by 2^128 words, as if nextInt() had been called
+    // that many times. Generators spaced this far apart never overlap in practice.
+    public void jump() {
+        jumpPowerOfTwo(JUMP_LOG2);
+    }
 
-        // Generate N words at a time.
-        if (mti >= N) {
-            int kk = 0;
+    // Advances the generator by 2^k words.
+    void jumpPowerOfTwo(int k) {
+        haveNextNextGaussian = false;
+        bitsLeft = 0;
+        positionKnown = false;
+        state();
+        finishTwist();
+        MersenneJump.apply(mt, MersenneJump.powerOfTwo(k));
+    }
 
-            for (; kk < N - M; kk++) {
-                y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                mt[kk] = mt[kk + M] ^ (y >>> 1) ^ mag01[y & 0x1];
-            }
+    // Advances the generator by n words, as if nextInt() had been called n times.
+    // Short skips just run the twist, long ones use a jump polynomial instead.
+    public void discard(long n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must not be negative, got: " + n);
+        }
 
-            for (; kk < N - 1; kk++) {
-                y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                mt[kk] = mt[kk + (M - N)] ^ (y >>> 1) ^ mag01[y & 0x1];
-            }
+        haveNextNextGaussian = false;
+        bitsLeft = 0;
+        state();
+        finishTwist();
+
+        if (n >= DISCARD_JUMP_THRESHOLD) {
+            MersenneJump.apply(mt, MersenneJump.power(n));
+            skipped += n;
+            positionKnown &= skipped >= 0;
+            return;
+        }
 
-            y = (mt[N - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
-            mt[N - 1] = mt[M - 1] ^ (y >>> 1) ^ mag01[y & 0x1];
-            mti = 0;
+        while (n > N - mti) {
+            n -= N - mti;
+            twist();
         }
 
-        y = mt[mti++];
-        y ^= y >>> 11;
-        y ^= (y << 7) & TEMPERING_MASK_B;
-        y ^= (y << 15) & TEMPERING_MASK_C;
-        y ^= (y >>> 18);
+        mti += (int) n;
+    }
 
-        return y;
+    // Returns a copy that carries on from this generator's current position,
+    // then jumps this generator ahead so the two streams never overlap.
+    public MersenneTwister split() {
+        MersenneTwister child = (MersenneTwister) clone();
+        jump();
+        return child;
     }
 
-    public short nextShort() {
-        int y;
+    // Returns a java.util.Random view that draws from this generator.
+    public Random asRandom() {
+        return new MersenneTwisterRandom(this);
+    }
 
-        // Generate N words at one time.
-        if (mti >= N) {
-            int kk;
+    // Regenerates all N words of state in one pass (see TwistKernel).
+    private void twist() {
+        TwistKernel.twist(state());
+        mti = 0;
+        limit = N;
+        twists++;
+    }
 
-            for (kk = 0; kk < N - M; kk++) {
-                y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                mt[kk] = mt[kk + M] ^ (y >>> 1) ^ mag01[y & 0x1];
-            }
+    // Called when mti reaches limit. In incremental mode this regenerates the
+    // next TWIST_CHUNK words, starting a new generation once the last one is
+    // used up. Word kk of a generation only reads words of the old generation
+    // at kk and after, plus new ones before it, so regenerating in order just
+    // ahead of mti gives the same words as twist().
+    private void refill() {
+        if (twistMode == TwistMode.BLOCK) {
+            twist();
+            return;
+        }
 
-            for (; kk < N - 1; kk++) {
-                y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                mt[kk] = mt[kk + (M - N)] ^ (y >>> 1) ^ mag01[y & 0x1];
-            }
+        int[] mt = state();
 
-            y = (mt[N - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
-            mt[N - 1] = mt[M - 1] ^ (y >>> 1) ^ mag01[y & 0x1];
+        if (limit == N) {
             mti = 0;
+            limit = 0;
+            twists++;
         }
 
-        y = mt[mti++];
-        y ^= y >>> 11;
-        y ^= (y << 7) & TEMPERING_MASK_B;
-        y ^= (y << 15) & TEMPERING_MASK_C;
-        y ^= (y >>> 18);
+        TwistKernel.twist(mt, limit, limit + TWIST_CHUNK);
+        limit += TWIST_CHUNK;
+    }
 
-        return (short) (y >>> 16);
+    // Regenerates whatever is left of a partial incremental twist, so the
+    // array holds one whole generation, as in block mode. Anything that reads
+    // or rewrites the array directly calls this first.
+    private void finishTwist() {
+        if (limit < N) {
+            TwistKernel.twist(mt, limit, N);
+            limit = N;
+        }
     }
 
-    public char nextChar() {
-        int y;
+    // Returns the next tempered 32-bit word, regenerating the state if needed.
+    // Every public draw goes through here, so keep it small enough to inline.
+    private int nextWord() {
+        if (mti >= limit) {
+            refill();
+        }
 
-        // Generate N words at one time.
-        if (mti >= N) {
-            int kk;
+        return temper(mt[mti++]);
+    }
 
-            for (kk = 0; kk < N - M; kk++) {
-                y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                mt[kk] = mt[kk + M] ^ (y >>> 1) ^ mag01[y & 0x1];
-            }
+    public TwistMode getTwistMode() {
+        return twistMode;
+    }
 
-            for (; kk < N - 1; kk++) {
-                y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                mt[kk] = mt[kk + (M - N)] ^ (y >>> 1) ^ mag01[y & 0x1];
-            }
+    // Takes effect from the next draw. The output doesn't change either way.
+    public void setTwistMode(TwistMode mode) {
+        if (mode == null) {
+            throw new IllegalArgumentException("mode must not be null.");
+        }
 
-            y = (mt[N - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
-            mt[N - 1] = mt[M - 1] ^ (y >>> 1) ^ mag01[y & 0x1];
-            mti = 0;
+        if (mt != null) {
+            finishTwist();
         }
 
-        y = mt[mti++];
+        twistMode = mode;
+    }
+
+    private static int temper(int y) {
         y ^= y >>> 11;
         y ^= (y << 7) & TEMPERING_MASK_B;
         y ^= (y << 15) & TEMPERING_MASK_C;
         y ^= (y >>> 18);
 
-        return (char) (y >>> 16);
+        return y;
     }
 
-    public boolean nextBoolean() {
-        int y;
+    public int nextInt() {
+        return nextWord();
+    }
 
-        // Generate N words at one time.
-        if (mti >= N) {
-            int kk;
+    // Returns the next k bits (1 to 32) in the low bits of an int. Bits left
+    // over from the last word are used up before another word is drawn.
+    public int nextBits(int k) {
+        if (k < 1 || k > 32) {
+            throw new IllegalArgumentException("k must be between 1 and 32 inclusive, got: " + k);
+        }
 
-            for (kk = 0; kk < N - M; kk++) {
-                y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                mt[kk] = mt[kk + M] ^ (y >>> 1) ^ mag01[y & 0x1];
-            }
+        int left = bitsLeft;
 
-            for (; kk < N - 1; kk++) {
-                y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                mt[kk] = mt[kk + (M - N)] ^ (y >>> 1) ^ mag01[y & 0x1];
-            }
-
-            y = (mt[N - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
-            mt[N - 1] = mt[M - 1] ^ (y >>> 1) ^ mag01[y & 0x1];
-            mti = 0;
+        // bitsLeft never exceeds 31, so neither shift here can be by 32.
+        if (k <= left) {
+            int pool = bitPool;
+            bitPool = pool << k;
+            bitsLeft = left - k;
+            return pool >>> (32 - k);
         }
 
-        y = mt[mti++];
-        y ^= y >>> 11;
-        y ^= (y << 7) & TEMPERING_MASK_B;
-        y ^= (y << 15) & TEMPERING_MASK_C;
-        y ^= (y >>> 18);
+        int need = k - left;
+        int word = nextWord();
+        int high = left == 0 ? 0 : (bitPool >>> (32 - left)) << need;
 
-        return (boolean) ((y >>> 31) != 0);
+        bitPool = word << need;
+        bitsLeft = 32 - need;
+        return high | (word >>> (32 - need));
     }
 
-    // Generates a boolean with a probability of returning true.
-    public boolean nextBoolean(float probability) {
-        int y;
+    public boolean isBitPooling() {
+        return bitPooling;
+    }
 
-        if (probability < 0.0f || probability > 1.0f) {
-            throw new IllegalArgumentException("probability must be between 0.0 and 1.0 inclusive.");
-        }
+    // When on, nextBoolean(), nextByte(), nextShort() and nextChar() take only
+    // the bits they need through nextBits(). That is a different sequence from
+    // the default of one word per call. Any pooled bits are dropped either way.
+    public void setBitPooling(boolean enabled) {
+        bitPooling = enabled;
+        bitsLeft = 0;
+    }
 
-        if (probability == 0.0f) {
-            return false;
-        } else if (probability == 1.0f) {
-            return true;
-        }
+    public short nextShort() {
+        if (bitPooling) return (short) nextBits(16);
+        return (short) (nextWord() >>> 16);
+    }
+
+    public char nextChar() {
+        if (bitPooling) return (char) nextBits(16);
+        return (char) (nextWord() >>> 16);
+    }
+
+    public boolean nextBoolean() {
+        if (bitPooling) return nextBits(1) != 0;
+        return (nextWord() >>> 31) != 0;
+    }
+
+    public byte nextByte() {
+        if (bitPooling) return (byte) nextBits(8);
+        return (byte) (nextWord() >>> 24);
+    }
 
-        // Generate N words at one time.
-        if (mti >= N) {
-            int kk;
+    // Fills the remaining bytes of a heap or direct buffer, with the same byte
+    // sequence as nextBytes(byte[]) whatever the buffer's own byte order is.
+    public void nextBytes(ByteBuffer buffer) {
+        ByteOrder order = buffer.order();
+        buffer.order(ByteOrder.BIG_ENDIAN);
 
-            for (kk = 0; kk < N - M; kk++) {
-                y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                mt[kk] = mt[kk + M] ^ (y >>> 1) ^ mag01[y & 0x1];
+        try {
+            while (buffer.remaining() >= 8) {
+                int y = nextWord();
+                int z = nextWord();
+                buffer.putLong(((long) y << 32) | ((long) z & 0xFFFFFFFFL));
             }
 
-            for (; kk < N - 1; kk++) {
-                y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                mt[kk] = mt[kk + (M - N)] ^ (y >>> 1) ^ mag01[y & 0x1];
+            if (buffer.remaining() >= 4) {
+                buffer.putInt(nextWord());
             }
 
-            y = (mt[N - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
-            mt[N - 1] = mt[M - 1] ^ (y >>> 1) ^ mag01[y & 0x1];
-            mti = 0;
+            if (buffer.hasRemaining()) {
+                int y = nextWord();
+
+                for (; buffer.hasRemaining(); y <<= 8) {
+                    buffer.put((byte) (y >>> 24));
+                }
+            }
+        } finally {
+            buffer.order(order);
         }
+    }
 
-        y = mt[mti++];
-        y ^= y >>> 11;
-        y ^= (y << 7) & TEMPERING_MASK_B;
-        y ^= (y << 15) & TEMPERING_MASK_C;
-        y ^= (y >>> 18);
+    // The pre-packing byte sequence: one byte (the top one) per word.
+    // Only for callers that need to reproduce old output.
+    public void nextBytesLegacy(byte[] bytes) {
+        for (int x = 0; x < bytes.length; x++) {
+            bytes[x] = (byte) (nextWord() >>> 24);
+        }
+    }
+
+    public long nextLong() {
+        int y = nextWord();
+        int z = nextWord();
 
-        return (y >>> 8) / ((float) (1 << 24)) < probability;
+        return (((long) y) << 32) + (long) z;
     }
 
-    // Generates a boolean with a probability of returning true.
-    public boolean nextBoolean(double probability) {
-        int y;
-        int z;
+    public BoundedMethod getBoundedMethod() {
+        return boundedMethod;
+    }
 
-        if (probability < 0.0 || probability > 1.0) {
-            throw new IllegalArgumentException("probability must be between 0.0 and 1.0 inclusive.");
+    public void setBoundedMethod(BoundedMethod method) {
+        if (method == null) {
+            throw new IllegalArgumentException("method must not be null.");
         }
 
-        if (probability == 0.0) {
-            return false;
-        } else if (probability == 1.0) {
-            return true;
+        boundedMethod = method;
+    }
+
+    // Returns a uniformly random number from 0 to n-1.
+    public long nextLong(long n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be positive, got: " + n);
         }
 
-        if (mti >= N) {
-            int kk;
+        if (boundedMethod == BoundedMethod.LEMIRE) {
+            return nextLongLemire(n);
+        }
 
-            for (kk = 0; kk < N - M; kk++) {
-                y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                mt[kk] = mt[kk + M] ^ (y >>> 1) ^ mag01[y & 0x1];
-            }
+        long bits, val;
 
-            for (; kk < N - 1; kk++) {
-                y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                mt[kk] = mt[kk + (M - N)] ^ (y >>> 1) ^ mag01[y & 0x1];
-            }
+        do {
+            bits = nextLong() >>> 1;
+            val = bits % n;
+        } while (bits - val + (n - 1) < 0);
 
-            y = (mt[N - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
-            mt[N - 1] = mt[M - 1] ^ (y >>> 1) ^ mag01[y & 0x1];
-            mti = 0;
-        }
+        return val;
+    }
 
-        y = mt[mti++];
-        y ^= y >>> 11;
-        y ^= (y << 7) & TEMPERING_MASK_B;
-        y ^= (y << 15) & TEMPERING_MASK_C;
-        y ^= (y >>> 18);
+    // The top 64 bits of x * n are uniform over [0, n) once products whose low
+    // 64 bits fall below 2^64 mod n are rejected. That bound is only worked out
+    // (with a division) when the low half is already below n.
+    private long nextLongLemire(long n) {
+        long x = nextLong();
+        long low = x * n;
 
-        // Generate N words at one time
-        if (mti >= N) {
-            int kk;
+        if (Long.compareUnsigned(low, n) < 0) {
+            long threshold = Long.remainderUnsigned(-n, n);
 
-            for (kk = 0; kk < N - M; kk++) {
-                z = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                mt[kk] = mt[kk + M] ^ (z >>> 1) ^ mag01[z & 0x1];
+            while (Long.compareUnsigned(low, threshold) < 0) {
+                x = nextLong();
+                low = x * n;
             }
+        }
 
-            for (; kk < N - 1; kk++) {
-                z = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                mt[kk] = mt[kk + (M - N)] ^ (z >>> 1) ^ mag01[z & 0x1];
-            }
+        return UnsignedMath.multiplyHigh(x, n);
+    }
 
-            z = (mt[N - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
-            mt[N - 1] = mt[M - 1] ^ (z >>> 1) ^ mag01[z & 0x1];
-            mti = 0;
-        }
+    // Returns a random double in the range [0.0, 1.0).
+    public double nextDouble() {
+        int y = nextWord();
+        int z = nextWord();
 
-        z = mt[mti++];
-        z ^= z >>> 11;
-        z ^= (z << 7) & TEMPERING_MASK_B;
-        z ^= (z << 15) & TEMPERING_MASK_C;
-        z ^= (z >>> 18);
+        // Derived from nextDouble documentation in jdk 1.2 docs, see top.
+        return ((((long) (y >>> 6)) << 27) + (z >>> 5)) / (double) (1L << 53);
+    }
 
-        /* derived from nextDouble documentation in jdk 1.2 docs, see top */
-        return ((((long) (y >>> 6)) << 27) + (z >>> 5)) / (double) (1L << 53) < probability;
+    public GaussianMethod getGaussianMethod() {
+        return gaussianMethod;
     }
 
-    public byte nextByte() {
-        int y;
+    // Switching methods discards any deviate the polar method has held back.
+    public void setGaussianMethod(GaussianMethod method) {
+        if (method == null) {
+            throw new IllegalArgumentException("method must not be null.");
+        }
 
-        // Generate N words at one time.
-        if (mti >= N) {
-            int kk;
+        gaussianMethod = method;
+        haveNextNextGaussian = false;
+    }
 
-            for (kk = 0; kk < N - M; kk++) {
-                y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                mt[kk] = mt[kk + M] ^ (y >>> 1) ^ mag01[y & 0x1];
-            }
+    public double nextGaussian() {
+        if (gaussianMethod == GaussianMethod.POLAR) {
+            return nextGaussianPolar();
+        }
 
-            for (; kk < N - 1; kk++) {
-                y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                mt[kk] = mt[kk + (M - N)] ^ (y >>> 1) ^ mag01[y & 0x1];
-            }
+        return Ziggurat.normal(this);
+    }
 
-            y = (mt[N - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
-            mt[N - 1] = mt[M - 1] ^ (y >>> 1) ^ mag01[y & 0x1];
-            mti = 0;
+    private double nextGaussianPolar() {
+        if(haveNextNextGaussian) {
+            haveNextNextGaussian = false;
+            return nextNextGaussian;
         }
 
-        y = mt[mti++];
-        y ^= y >>> 11;
-        y ^= (y << 7) & TEMPERING_MASK_B;
-        y ^= (y << 15) & TEMPERING_MASK_C;
-        y ^= (y >>> 18);
+        else {
+            double v1, v2, s;
 
-        return (byte) (y >>> 24);
-    }
+            do {
+                v1 = 2 * nextDouble() - 1;
+                v2 = 2 * nextDouble() - 1;
+                s = v1 * v1 + v2 * v2;
+            } while (s >= 1 || s == 0);
 
-    public void nextBytes(byte[] bytes) {
-        int y;
+            double multiplier = StrictMath.sqrt(-2 * StrictMath.log(s) / s);
+            nextNextGaussian = v2 * multiplier;
+            haveNextNextGaussian = true;
+            return v1 * multiplier;
+        }
+    }
 
-        for (int x = 0; x < bytes.length; x++) {
-            // Generate N words at one time.
-            if (mti >= N) {
-                int kk;
+    // Returns a uniformly random number from 0 to n-1.
+    public int nextInt(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be positive, got: " + n);
+        }
 
-                for (kk = 0; kk < N - M; kk++) {
-                    y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                    mt[kk] = mt[kk + M] ^ (y >>> 1) ^ mag01[y & 0x1];
-                }
+        if (boundedMethod == BoundedMethod.LEMIRE) {
+            return nextIntLemire(n);
+        }
 
-                for (; kk < N - 1; kk++) {
-                    y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                    mt[kk] = mt[kk + (M - N)] ^ (y >>> 1) ^ mag01[y & 0x1];
-                }
+        // i.e. n is a power of 2.
+        if ((n & -n) == n) {
+            return (int) ((n * (long) (nextWord() >>> 1)) >> 31);
+        }
 
-                y = (mt[N - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
-                mt[N - 1] = mt[M - 1] ^ (y >>> 1) ^ mag01[y & 0x1];
-                mti = 0;
-            }
+        int bits, val;
 
-            y = mt[mti++];
-            y ^= y >>> 11;
-            y ^= (y << 7) & TEMPERING_MASK_B;
-            y ^= (y << 15) & TEMPERING_MASK_C;
-            y ^= (y >>> 18);
+        do {
+            bits = nextWord() >>> 1;
+            val = bits % n;
+        } while (bits - val + (n - 1) < 0);
 
-            bytes[x] = (byte) (y >>> 24);
-        }
+        return val;
     }
 
-    public long nextLong() {
-        int y;
-        int z;
+    // 32-bit version of nextLongLemire(); the 64-bit product fits in a long.
+    private int nextIntLemire(int n) {
+        long m = (nextWord() & 0xFFFFFFFFL) * n;
+        long low = m & 0xFFFFFFFFL;
 
-        // Generate N words at one time.
-        if (mti >= N) {
-            int kk;
+        if (low < n) {
+            long threshold = (0x100000000L - n) % n;
 
-            for (kk = 0; kk < N - M; kk++) {
-                y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                mt[kk] = mt[kk + M] ^ (y >>> 1) ^ mag01[y & 0x1];
+            while (low < threshold) {
+                m = (nextWord() & 0xFFFFFFFFL) * n;
+                low = m & 0xFFFFFFFFL;
             }
+        }
 
-            for (; kk < N - 1; kk++) {
-                y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                mt[kk] = mt[kk + (M - N)] ^ (y >>> 1) ^ mag01[y & 0x1];
-            }
+        return (int) (m >>> 32);
+    }
 
-            y = (mt[N - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
-            mt[N - 1] = mt[M - 1] ^ (y >>> 1) ^ mag01[y & 0x1];
-            mti = 0;
+    private static void checkRange(int length, int off, int len) {
+        if (off < 0 || len < 0 || off > length - len) {
+            String reason = String.format("Range [%d, %d + %d) out of bounds for length %d", off, off, len, length);
+            throw new IndexOutOfBoundsException(reason);
         }
+    }
 
-        y = mt[mti++];
-        y ^= y >>> 11;
-        y ^= (y << 7) & TEMPERING_MASK_B;
-        y ^= (y << 15) & TEMPERING_MASK_C;
-        y ^= (y >>> 18);
+    // Bulk versions of nextInt(), nextLong(), nextDouble(), nextFloat() and
+    // nextGaussian(). They produce exactly what the same number of single calls
+    // would, but copy whole blocks of tempered words out of the state with the
+    // cursor kept in a local.
+    public void nextInts(int[] dst) {
+        nextInts(dst, 0, dst.length);
+    }
 
-        // Generate N words at one time.
-        if (mti >= N) {
-            int kk;
+    public void nextInts(int[] dst, int off, int len) {
+        checkRange(dst.length, off, len);
 
-            for (kk = 0; kk < N - M; kk++) {
-                z = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                mt[kk] = mt[kk + M] ^ (z >>> 1) ^ mag01[z & 0x1];
-            }
+        final int[] mt = state();
+        finishTwist();
+        final int end = off + len;
+        int i = mti;
 
-            for (; kk < N - 1; kk++) {
-                z = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                mt[kk] = mt[kk + (M - N)] ^ (z >>> 1) ^ mag01[z & 0x1];
+        while (off < end) {
+            if (i >= N) {
+                twist();
+                i = 0;
             }
 
-            z = (mt[N - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
-            mt[N - 1] = mt[M - 1] ^ (z >>> 1) ^ mag01[z & 0x1];
-            mti = 0;
+            int n = Math.min(N - i, end - off);
+            TwistKernel.temper(mt, i, dst, off, n);
+
+            i += n;
+            off += n;
         }
 
-        z = mt[mti++];
-        z ^= z >>> 11;
-        z ^= (z << 7) & TEMPERING_MASK_B;
-        z ^= (z << 15) & TEMPERING_MASK_C;
-        z ^= (z >>> 18);
+        mti = i;
+    }
 
-        return (((long) y) << 32) + (long) z;
+    public void nextLongs(long[] dst) {
+        nextLongs(dst, 0, dst.length);
     }
 
-    // Returns a uniformly random number from 0 to n-1.
-    public long nextLong(long n) {
-        if (n <= 0) {
-            throw new IllegalArgumentException("n must be positive, got: " + n);
-        }
+    public void nextLongs(long[] dst, int off, int len) {
+        checkRange(dst.length, off, len);
 
-        long bits, val;
-        int y, z;
+        final int[] mt = state();
+        finishTwist();
+        final int end = off + len;
+        int i = mti;
 
-        do {
-            // Generate N words at one time.
-            if (mti >= N) {
-                int kk;
+        while (off < end) {
+            if (N - i >= 2) {
+                int n = Math.min((N - i) >>> 1, end - off);
 
-                for (kk = 0; kk < N - M; kk++) {
-                    y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                    mt[kk] = mt[kk + M] ^ (y >>> 1) ^ mag01[y & 0x1];
+                for (int k = 0; k < n; k++, i += 2) {
+                    int y = temper(mt[i]);
+                    int z = temper(mt[i + 1]);
+                    dst[off + k] = (((long) y) << 32) + (long) z;
                 }
 
-                for (; kk < N - 1; kk++) {
-                    y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                    mt[kk] = mt[kk + (M - N)] ^ (y >>> 1) ^ mag01[y & 0x1];
+                off += n;
+            } else {
+                // The two words straddle a twist.
+                if (i >= N) {
+                    twist();
+                    i = 0;
                 }
 
-                y = (mt[N - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
-                mt[N - 1] = mt[M - 1] ^ (y >>> 1) ^ mag01[y & 0x1];
-                mti = 0;
-            }
+                int y = temper(mt[i++]);
 
-            y = mt[mti++];
-            y ^= y >>> 11;
-            y ^= (y << 7) & TEMPERING_MASK_B;
-            y ^= (y << 15) & TEMPERING_MASK_C;
-            y ^= (y >>> 18);
+                if (i >= N) {
+                    twist();
+                    i = 0;
+                }
 
-            // Generate N words at one time.
-            if (mti >= N) {
-                int kk;
+                int z = temper(mt[i++]);
+                dst[off++] = (((long) y) << 32) + (long) z;
+            }
+        }
 
-                for (kk = 0; kk < N - M; kk++) {
-                    z = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                    mt[kk] = mt[kk + M] ^ (z >>> 1) ^ mag01[z & 0x1];
-                }
+        mti = i;
+    }
 
-                for (; kk < N - 1; kk++) {
-                    z = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                    mt[kk] = mt[kk + (M - N)] ^ (z >>> 1) ^ mag01[z & 0x1];
-                }
+    public void nextDoubles(double[] dst) {
+        nextDoubles(dst, 0, dst.length);
+    }
 
-                z = (mt[N - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
-                mt[N - 1] = mt[M - 1] ^ (z >>> 1) ^ mag01[z & 0x1];
-                mti = 0;
-            }
+    public void nextDoubles(double[] dst, int off, int len) {
+        checkRange(dst.length, off, len);
 
-            z = mt[mti++];
-            z ^= z >>> 11;
-            z ^= (z << 7) & TEMPERING_MASK_B;
-            z ^= (z << 15) & TEMPERING_MASK_C;
-            z ^= (z >>> 18);
+        final int[] mt = state();
+        finishTwist();
+        final int end = off + len;
+        int i = mti;
 
-            bits = (((((long) y) << 32) + (long) z) >>> 1);
-            val = bits % n;
-        } while (bits - val + (n - 1) < 0);
+        while (off < end) {
+            if (N - i >= 2) {
+                int n = Math.min((N - i) >>> 1, end - off);
 
-        return val;
-    }
+                for (int k = 0; k < n; k++, i += 2) {
+                    int y = temper(mt[i]);
+                    int z = temper(mt[i + 1]);
+                    dst[off + k] = ((((long) (y >>> 6)) << 27) + (z >>> 5)) / (double) (1L << 53);
+                }
 
-    // Returns a random double in the range [0.0, 1.0).
-    public double nextDouble() {
-        int y;
-        int z;
+                off += n;
+            } else {
+                // The two words straddle a twist.
+                if (i >= N) {
+                    twist();
+                    i = 0;
+                }
 
-        // Generate N words at one time.
-        if (mti >= N) {
-            int kk;
+                int y = temper(mt[i++]);
 
-            for (kk = 0; kk < N - M; kk++) {
-                y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                mt[kk] = mt[kk + M] ^ (y >>> 1) ^ mag01[y & 0x1];
-            }
+                if (i >= N) {
+                    twist();
+                    i = 0;
+                }
 
-            for (; kk < N - 1; kk++) {
-                y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                mt[kk] = mt[kk + (M - N)] ^ (y >>> 1) ^ mag01[y & 0x1];
+                int z = temper(mt[i++]);
+                dst[off++] = ((((long) (y >>> 6)) << 27) + (z >>> 5)) / (double) (1L << 53);
             }
-
-            y = (mt[N - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
-            mt[N - 1] = mt[M - 1] ^ (y >>> 1) ^ mag01[y & 0x1];
-            mti = 0;
         }
 
-        y = mt[mti++];
-        y ^= y >>> 11;
-        y ^= (y << 7) & TEMPERING_MASK_B;
-        y ^= (y << 15) & TEMPERING_MASK_C;
-        y ^= (y >>> 18);
+        mti = i;
+    }
+
+    public void nextFloats(float[] dst) {
+        nextFloats(dst, 0, dst.length);
+    }
+
+    public void nextFloats(float[] dst, int off, int len) {
+        checkRange(dst.length, off, len);
 
-        // Generate N words at one time.
-        if (mti >= N) {
-            int kk;
+        final int[] mt = state();
+        finishTwist();
+        final int end = off + len;
+        int i = mti;
 
-            for (kk = 0; kk < N - M; kk++) {
-                z = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                mt[kk] = mt[kk + M] ^ (z >>> 1) ^ mag01[z & 0x1];
+        while (off < end) {
+            if (i >= N) {
+                twist();
+                i = 0;
             }
 
-            for (; kk < N - 1; kk++) {
-                z = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                mt[kk] = mt[kk + (M - N)] ^ (z >>> 1) ^ mag01[z & 0x1];
+            int n = Math.min(N - i, end - off);
+
+            for (int k = 0; k < n; k++) {
+                dst[off + k] = (temper(mt[i + k]) >>> 8) / ((float) (1 << 24));
             }
 
-            z = (mt[N - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
-            mt[N - 1] = mt[M - 1] ^ (z >>> 1) ^ mag01[z & 0x1];
-            mti = 0;
+            i += n;
+            off += n;
         }
 
-        z = mt[mti++];
-        z ^= z >>> 11;
-        z ^= (z << 7) & TEMPERING_MASK_B;
-        z ^= (z << 15) & TEMPERING_MASK_C;
-        z ^= (z >>> 18);
+        mti = i;
+    }
 
-        // Derived from nextDouble documentation in jdk 1.2 docs, see top.
-        return ((((long) (y >>> 6)) << 27) + (z >>> 5)) / (double) (1L << 53);
+    public void nextGaussians(double[] dst) {
+        nextGaussians(dst, 0, dst.length);
     }
 
-    // Returns a double between 0.0 and 1.0, potentially inclusive.
-    public double nextDouble(boolean includeZero, boolean includeOne) {
-        double d = 0.0;
+    public void nextGaussians(double[] dst, int off, int len) {
+        checkRange(dst.length, off, len);
 
-        do {
-            // Grab a value, initially from half-open [0.0, 1.0).
-            d = nextDouble();
+        final int end = off + len;
 
-             // If including one, push to [1.0, 2.0).
-            if (includeOne && nextBoolean()) {
-                d += 1.0;
+        if (gaussianMethod != GaussianMethod.POLAR) {
+            for (int x = off; x < end; x++) {
+                dst[x] = Ziggurat.normal(this);
             }
-        } while ((d > 1.0) || (!includeZero && d == 0.0));
 
-        return d;
-    }
+            return;
+        }
 
-    public double nextGaussian() {
-        if(haveNextNextGaussian) {
+        if (off < end && haveNextNextGaussian) {
             haveNextNextGaussian = false;
-            return nextNextGaussian;
+            dst[off++] = nextNextGaussian;
         }
 
-        else {
+        while (off < end) {
             double v1, v2, s;
 
             do {
-                int a, b, y, z;
-
-                // Generate N words at one time.
-                if (mti >= N) {
-                    int kk;
-
-                    for (kk = 0; kk < N - M; kk++) {
-                        y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                        mt[kk] = mt[kk + M] ^ (y >>> 1) ^ mag01[y & 0x1];
-                    }
-
-                    for (; kk < N - 1; kk++) {
-                        y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                        mt[kk] = mt[kk + (M - N)] ^ (y >>> 1) ^ mag01[y & 0x1];
-                    }
-
-                    y = (mt[N - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
-                    mt[N - 1] = mt[M - 1] ^ (y >>> 1) ^ mag01[y & 0x1];
-                    mti = 0;
-                }
-
-                y = mt[mti++];
-                y ^= y >>> 11;
-                y ^= (y << 7) & TEMPERING_MASK_B;
-                y ^= (y << 15) & TEMPERING_MASK_C;
-                y ^= (y >>> 18);
-
-                // Generate N words at one time.
-                if (mti >= N) {
-                    int kk;
-
-                    for (kk = 0; kk < N - M; kk++) {
-                        z = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                        mt[kk] = mt[kk + M] ^ (z >>> 1) ^ mag01[z & 0x1];
-                    }
-
-                    for (; kk < N - 1; kk++) {
-                        z = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                        mt[kk] = mt[kk + (M - N)] ^ (z >>> 1) ^ mag01[z & 0x1];
-                    }
-
-                    z = (mt[N - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
-                    mt[N - 1] = mt[M - 1] ^ (z >>> 1) ^ mag01[z & 0x1];
-                    mti = 0;
-                }
-
-                z = mt[mti++];
-                z ^= z >>> 11;
-                z ^= (z << 7) & TEMPERING_MASK_B;
-                z ^= (z << 15) & TEMPERING_MASK_C;
-                z ^= (z >>> 18);
-
-                // Generate N words at one time.
-                if (mti >= N) {
-                    int kk;
-
-                    for (kk = 0; kk < N - M; kk++) {
-                        a = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                        mt[kk] = mt[kk + M] ^ (a >>> 1) ^ mag01[a & 0x1];
-                    }
-
-                    for (; kk < N - 1; kk++) {
-                        a = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                        mt[kk] = mt[kk + (M - N)] ^ (a >>> 1) ^ mag01[a & 0x1];
-                    }
-
-                    a = (mt[N - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
-                    mt[N - 1] = mt[M - 1] ^ (a >>> 1) ^ mag01[a & 0x1];
-                    mti = 0;
-                }
-
-                a = mt[mti++];
-                a ^= a >>> 11;
-                a ^= (a << 7) & TEMPERING_MASK_B;
-                a ^= (a << 15) & TEMPERING_MASK_C;
-                a ^= (a >>> 18);
-
-                // Generate N words at one time.
-                if (mti >= N) {
-                    int kk;
-
-                    for (kk = 0; kk < N - M; kk++) {
-                        b = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                        mt[kk] = mt[kk + M] ^ (b >>> 1) ^ mag01[b & 0x1];
-                    }
-
-                    for (; kk < N - 1; kk++) {
-                        b = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                        mt[kk] = mt[kk + (M - N)] ^ (b >>> 1) ^ mag01[b & 0x1];
-                    }
-
-                    b = (mt[N - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
-                    mt[N - 1] = mt[M - 1] ^ (b >>> 1) ^ mag01[b & 0x1];
-                    mti = 0;
-                }
-
-                b = mt[mti++];
-                b ^= b >>> 11;
-                b ^= (b << 7) & TEMPERING_MASK_B;
-                b ^= (b << 15) & TEMPERING_MASK_C;
-                b ^= (b >>> 18);
-
-                // Derived from nextDouble documentation in jdk 1.2 docs, see top.
-                v1 = 2 * (((((long) (y >>> 6)) << 27) + (z >>> 5)) / (double) (1L << 53)) - 1;
-                v2 = 2 * (((((long) (a >>> 6)) << 27) + (b >>> 5)) / (double) (1L << 53)) - 1;
+                v1 = 2 * nextDouble() - 1;
+                v2 = 2 * nextDouble() - 1;
                 s = v1 * v1 + v2 * v2;
             } while (s >= 1 || s == 0);
 
             double multiplier = StrictMath.sqrt(-2 * StrictMath.log(s) / s);
-            nextNextGaussian = v2 * multiplier;
-            haveNextNextGaussian = true;
-            return v1 * multiplier;
+            dst[off++] = v1 * multiplier;
+
+            if (off < end) {
+                dst[off++] = v2 * multiplier;
+            } else {
+                nextNextGaussian = v2 * multiplier;
+                haveNextNextGaussian = true;
+            }
         }
     }
 
-    // Returns a random float from [0.0f, 1.0f).
-    public float nextFloat() {
-        int y;
+    // Fills dst on the common ForkJoinPool. The array is cut into chunks of
+    // chunkSize elements, and chunk k is filled from this generator's current
+    // state advanced by k * 2^128 words, i.e. what split() would have handed
+    // out k + 1 times over. So for a given state and chunk size the result is
+    // the same however many threads run it, and is just what filling each
+    // chunk in turn from those substreams would give. Afterwards this
+    // generator is moved past every substream used, as if split() had been
+    // called once per chunk.
+    public void fillParallel(double[] dst) {
+        fillParallel(dst, PARALLEL_CHUNK);
+    }
 
-        // Generate N words at one time.
-        if (mti >= N) {
-            int kk;
+    public void fillParallel(double[] dst, int chunkSize) {
+        fillParallel(dst.length, chunkSize, (rng, from, to) -> rng.nextDoubles(dst, from, to - from));
+    }
 
-            for (kk = 0; kk < N - M; kk++) {
-                y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                mt[kk] = mt[kk + M] ^ (y >>> 1) ^ mag01[y & 0x1];
-            }
+    public void fillParallel(int[] dst) {
+        fillParallel(dst, PARALLEL_CHUNK);
+    }
 
-            for (; kk < N - 1; kk++) {
-                y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                mt[kk] = mt[kk + (M - N)] ^ (y >>> 1) ^ mag01[y & 0x1];
-            }
+    public void fillParallel(int[] dst, int chunkSize) {
+        fillParallel(dst.length, chunkSize, (rng, from, to) -> rng.nextInts(dst, from, to - from));
+    }
 
-            y = (mt[N - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
-            mt[N - 1] = mt[M - 1] ^ (y >>> 1) ^ mag01[y & 0x1];
-            mti = 0;
-        }
+    public void fillParallel(long[] dst) {
+        fillParallel(dst, PARALLEL_CHUNK);
+    }
 
-        y = mt[mti++];
-        y ^= y >>> 11;
-        y ^= (y << 7) & TEMPERING_MASK_B;
-        y ^= (y << 15) & TEMPERING_MASK_C;
-        y ^= (y >>> 18);
+    public void fillParallel(long[] dst, int chunkSize) {
+        fillParallel(dst.length, chunkSize, (rng, from, to) -> rng.nextLongs(dst, from, to - from));
+    }
 
-        return (y >>> 8) / ((float) (1 << 24));
+    // Fills elements [from, to) of some array from rng.
+    private interface ChunkFill {
+        void fill(MersenneTwister rng, int from, int to);
     }
 
-    // Returns a float in the range from 0.0f to 1.0f, possibly inclusive of 0.0f and 1.0f themselves.
-    public float nextFloat(boolean includeZero, boolean includeOne) {
-        float d = 0.0f;
+    private void fillParallel(int length, int chunkSize, ChunkFill fill) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive, got: " + chunkSize);
+        }
 
-        do {
-            // Grab a value, initially from half-open [0.0f, 1.0f).
-            d = nextFloat();
+        int chunks = (int) (((long) length + chunkSize - 1) / chunkSize);
 
-            // If including one, push to [1.0f, 2.0f).
-            if (includeOne && nextBoolean()) {
-                d += 1.0f;
-            }
-        } while ((d > 1.0f) || (!includeZero && d == 0.0f));
+        if (chunks == 0) {
+            return;
+        }
 
-        return d;
-    }
+        state();
+        finishTwist();
+        MersenneTwister first = (MersenneTwister) clone();
+        first.bitsLeft = 0;
+        first.haveNextNextGaussian = false;
 
-    // Returns a uniformly random number from 0 to n-1.
-    public int nextInt(int n) {
-        if (n <= 0) {
-            throw new IllegalArgumentException("n must be positive, got: " + n);
-        }
+        ForkJoinTask<Void> task = ForkJoinPool.commonPool().submit(new FillTask(first, 0, chunks, length, chunkSize, fill));
 
-        // i.e. n is a power of 2.
-        if ((n & -n) == n) {
-            int y;
+        // Meanwhile move this generator on by chunks * 2^128 words, one jump per set bit.
+        haveNextNextGaussian = false;
+        bitsLeft = 0;
+        positionKnown = false;
 
-            // Generate N words at one time.
-            if (mti >= N) {
-                int kk;
+        for (int j = 0; j < 32 - Integer.numberOfLeadingZeros(chunks); j++) {
+            if (((chunks >>> j) & 0x1) != 0) {
+                MersenneJump.apply(mt, MersenneJump.powerOfTwo(JUMP_LOG2 + j));
+            }
+        }
 
-                for (kk = 0; kk < N - M; kk++) {
-                    y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                    mt[kk] = mt[kk + M] ^ (y >>> 1) ^ mag01[y & 0x1];
-                }
+        task.join();
+    }
 
-                for (; kk < N - 1; kk++) {
-                    y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                    mt[kk] = mt[kk + (M - N)] ^ (y >>> 1) ^ mag01[y & 0x1];
-                }
+    // Fills chunks [lo, hi), with rng positioned at the start of chunk lo.
+    // Ranges are split at a power of two, so the right half's generator is
+    // always a single jump of 2^(128 + j) words away from the left's.
+    @SuppressWarnings("serial")
+    private static final class FillTask extends RecursiveAction {
+        private final MersenneTwister rng;
+        private final int lo, hi;
+        private final int length, chunkSize;
+        private final ChunkFill fill;
+
+        FillTask(MersenneTwister rng, int lo, int hi, int length, int chunkSize, ChunkFill fill) {
+            this.rng = rng;
+            this.lo = lo;
+            this.hi = hi;
+            this.length = length;
+            this.chunkSize = chunkSize;
+            this.fill = fill;
+        }
 
-                y = (mt[N - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
-                mt[N - 1] = mt[M - 1] ^ (y >>> 1) ^ mag01[y & 0x1];
-                mti = 0;
+        @Override
+        protected void compute() {
+            if (hi - lo == 1) {
+                int from = lo * chunkSize;
+                fill.fill(rng, from, (int) Math.min((long) from + chunkSize, length));
+                return;
             }
 
-            y = mt[mti++];
-            y ^= y >>> 11;
-            y ^= (y << 7) & TEMPERING_MASK_B;
-            y ^= (y << 15) & TEMPERING_MASK_C;
-            y ^= (y >>> 18);
+            int half = Integer.highestOneBit(hi - lo - 1);
+            MersenneTwister right = (MersenneTwister) rng.clone();
+            MersenneJump.apply(right.mt, MersenneJump.powerOfTwo(JUMP_LOG2 + Integer.numberOfTrailingZeros(half)));
 
-            return (int) ((n * (long) (y >>> 1)) >> 31);
+            invokeAll(new FillTask(rng, lo, lo + half, length, chunkSize, fill),
+                      new FillTask(right, lo + half, hi, length, chunkSize, fill));
         }
+    }
 
-        int bits, val, y;
+    // Streams of draws, like java.util.Random's. A sequential stream draws
+    // straight from this generator as it is consumed. A parallel one hands
+    // each split a substream of its own via split(), so threads never share
+    // state; see RandomSpliterators. The sizeless forms are effectively
+    // unlimited (Long.MAX_VALUE draws).
+    public IntStream ints(long size) {
+        checkStreamSize(size);
+        return StreamSupport.intStream(new RandomSpliterators.IntSpliterator(this, 0, size, false, 0, 0), false);
+    }
 
-        do {
-            // Generate N words at one time.
-            if (mti >= N) {
-                int kk;
+    public IntStream ints() {
+        return ints(Long.MAX_VALUE);
+    }
 
-                for (kk = 0; kk < N - M; kk++) {
-                    y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                    mt[kk] = mt[kk + M] ^ (y >>> 1) ^ mag01[y & 0x1];
-                }
+    // Integers drawn uniformly from a to b-1.
+    public IntStream ints(long size, int a, int b) {
+        checkStreamSize(size);
 
-                for (; kk < N - 1; kk++) {
-                    y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-                    mt[kk] = mt[kk + (M - N)] ^ (y >>> 1) ^ mag01[y & 0x1];
-                }
+        if (b <= a) {
+            String reason = String.format("b must be greater than a! (a: %d, b: %d)", a, b);
+            throw new IllegalArgumentException(reason);
+        }
 
-                y = (mt[N - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
-                mt[N - 1] = mt[M - 1] ^ (y >>> 1) ^ mag01[y & 0x1];
-                mti = 0;
-            }
+        return StreamSupport.intStream(new RandomSpliterators.IntSpliterator(this, 0, size, true, a, b), false);
+    }
 
-            y = mt[mti++];
-            y ^= y >>> 11;
-            y ^= (y << 7) & TEMPERING_MASK_B;
-            y ^= (y << 15) & TEMPERING_MASK_C;
-            y ^= (y >>> 18);
+    public IntStream ints(int a, int b) {
+        return ints(Long.MAX_VALUE, a, b);
+    }
 
-            bits = (y >>> 1);
-            val = bits % n;
-        } while (bits - val + (n - 1) < 0);
+    public LongStream longs(long size) {
+        checkStreamSize(size);
+        return StreamSupport.longStream(new RandomSpliterators.LongSpliterator(this, 0, size, false, 0, 0), false);
+    }
 
-        return val;
+    public LongStream longs() {
+        return longs(Long.MAX_VALUE);
     }
 
-    // Returns an integer drawn uniformly from a to b-1.
-    public int nextInt(int a, int b) {
+    // Longs drawn uniformly from a to b-1.
+    public LongStream longs(long size, long a, long b) {
+        checkStreamSize(size);
+
         if (b <= a) {
             String reason = String.format("b must be greater than a! (a: %d, b: %d)", a, b);
             throw new IllegalArgumentException(reason);
         }
 
-        return this.nextInt(b - a) + a;
+        return StreamSupport.longStream(new RandomSpliterators.LongSpliterator(this, 0, size, true, a, b), false);
     }
 
-    // Returns an integer drawn uniformly from a to b-1.
-    public long nextLong(long a, long b) {
-        if (b <= a) {
-            String reason = String.format("b must be greater than a! (a: %d, b: %d)", a, b);
-            throw new IllegalArgumentException(reason);
-        }
+    public LongStream longs(long a, long b) {
+        return longs(Long.MAX_VALUE, a, b);
+    }
 
-        return this.nextLong(b - a) + a;
+    // Doubles in the range [0.0, 1.0).
+    public DoubleStream doubles(long size) {
+        checkStreamSize(size);
+        return StreamSupport.doubleStream(new RandomSpliterators.DoubleSpliterator(this, 0, size, false, 0.0, 0.0), false);
     }
 
-    // Returns a floating-point number in the range of [a, b).
-    public float nextFloat(float a, float b) {
-        if (b <= a) {
+    public DoubleStream doubles() {
+        return doubles(Long.MAX_VALUE);
+    }
+
+    // Doubles in the range [a, b), as nextDouble(a, b).
+    public DoubleStream doubles(long size, double a, double b) {
+        checkStreamSize(size);
+
+        if (!(a < b)) {
             String reason = String.format("b must be greater than a! (a: %f, b: %f)", a, b);
             throw new IllegalArgumentException(reason);
         }
 
-        float fractional = this.nextFloat() * (b - a);
-        return a + fractional;
+        return StreamSupport.doubleStream(new RandomSpliterators.DoubleSpliterator(this, 0, size, true, a, b), false);
     }
 
-    // Returns a double floating-point number in the range of [a, b).
-    public double nextDouble(double a, double b) {
-        if (b <= a) {
-            String reason = String.format("b must be greater than a! (a: %f, b: %f)", a, b);
-            throw new IllegalArgumentException(reason);
-        }
+    public DoubleStream doubles(double a, double b) {
+        return doubles(Long.MAX_VALUE, a, b);
+    }
 
-        double fractional = this.nextDouble() * (b - a);
-        return a + fractional;
+    private static void checkStreamSize(long size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size must not be negative, got: " + size);
+        }
     }
 }
@@ -0,0 +1,257 @@
+package dev.larrabyte.huff;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// The 64-bit Mersenne Twister (MT19937-64), after Nishimura and Matsumoto.
+// Every step yields a full 64-bit word, so nextLong() and nextDouble() temper
+// once instead of stitching two 32-bit words together. Everything else is the
+// RandomSource default, bar the eight-bytes-per-word nextBytes().
+//
+// Like MersenneTwister, instances are not thread-safe and take no locks,
+// reseeding included. Wrap one in a ConcurrentRandomSource to share it
+// between threads.
+public strictfp class MersenneTwister64 implements SplittableRandomSource, Checkpointable, Cloneable {
+    private static final long serialVersionUID = -3340172871358306745L;
+
+    // Period parameters.
+    private static final int N = 312;
+    private static final int M = 156;
+    private static final long MATRIX_A = 0xB5026F5AA96619E9L;
+    private static final long UPPER_MASK = 0xFFFFFFFF80000000L;
+    private static final long LOWER_MASK = 0x7FFFFFFFL;
+
+    // Tempering parameters.
+    private static final long TEMPERING_MASK_D = 0x5555555555555555L;
+    private static final long TEMPERING_MASK_B = 0x71D67FFFEDA60000L;
+    private static final long TEMPERING_MASK_C = 0xFFF7EEE000000000L;
+
+    // Distance of jump() as a power of two.
+    private static final int JUMP_LOG2 = 128;
+
+    // Bytes written by writeState(ByteBuffer): header, mti, the state array, checksum.
+    public static final int STATE_BYTES = StateFormat.HEADER_BYTES + 4 + 8 * N + StateFormat.TRAILER_BYTES;
+
+    // Allocated once; reseeding overwrites it in place.
+    private long mt[] = new long[N];
+    private int mti;
+
+    public Object clone() {
+        try {
+            MersenneTwister64 f = (MersenneTwister64) super.clone();
+            f.mt = (long[]) mt.clone();
+            return f;
+        } catch (CloneNotSupportedException e) {
+            // This should never happen!
+            throw new InternalError();
+        }
+    }
+
+    public boolean stateEquals(Object o) {
+        if (o == this) return true;
+        if (o == null || !(o instanceof MersenneTwister64)) return false;
+
+        MersenneTwister64 other = (MersenneTwister64) o;
+        if (mti != other.mti) return false;
+
+        for (int x = 0; x < mt.length; x++) {
+            if (mt[x] != other.mt[x]) return false;
+        }
+
+        return true;
+    }
+
+    // Constructor (uses time as the default seed).
+    public MersenneTwister64() {
+        this(System.currentTimeMillis());
+    }
+
+    // Constructor using a given seed (all 64 bits are used).
+    public MersenneTwister64(long seed) {
+        setSeed(seed);
+    }
+
+    // Constructor using an array of longs. Only the first 312 are used.
+    public MersenneTwister64(long[] array) {
+        setSeed(array);
+    }
+
+    // Initialise the pseudo-random number generator (init_genrand64).
+    public void setSeed(long seed) {
+        mt[0] = seed;
+
+        for (mti = 1; mti < N; mti++) {
+            mt[mti] = 6364136223846793005L * (mt[mti - 1] ^ (mt[mti - 1] >>> 62)) + mti;
+        }
+    }
+
+    // Sets the seed of the generator using an array of longs (init_by_array64).
+    public void setSeed(long[] array) {
+        if (array.length == 0) {
+            throw new IllegalArgumentException("Array length must be greater than zero");
+        }
+
+        int i = 1;
+        int j = 0;
+        setSeed(19650218L);
+
+        for (int k = N > array.length ? N : array.length; k != 0; k--) {
+            mt[i] = (mt[i] ^ ((mt[i - 1] ^ (mt[i - 1] >>> 62)) * 3935559000370003845L)) + array[j] + j;
+            i++;
+            j++;
+
+            if (i >= N) {
+                mt[0] = mt[N - 1];
+                i = 1;
+            }
+
+            if (j >= array.length) {
+                j = 0;
+            }
+        }
+
+        for (int k = N - 1; k != 0; k--) {
+            mt[i] = (mt[i] ^ ((mt[i - 1] ^ (mt[i - 1] >>> 62)) * 2862933555777941757L)) - i;
+            i++;
+
+            if (i >= N) {
+                mt[0] = mt[N - 1];
+                i = 1;
+            }
+        }
+
+        // MSB is 1, assuring a non-zero initial array.
+        mt[0] = 1L << 63;
+    }
+
+    // Regenerates all N words of state in one pass.
+    private void twist() {
+        final long[] mt = this.mt;
+        int kk = 0;
+        long x;
+
+        for (; kk < N - M; kk++) {
+            x = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
+            mt[kk] = mt[kk + M] ^ (x >>> 1) ^ (-(x & 0x1L) & MATRIX_A);
+        }
+
+        for (; kk < N - 1; kk++) {
+            x = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
+            mt[kk] = mt[kk + (M - N)] ^ (x >>> 1) ^ (-(x & 0x1L) & MATRIX_A);
+        }
+
+        x = (mt[N - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
+        mt[N - 1] = mt[M - 1] ^ (x >>> 1) ^ (-(x & 0x1L) & MATRIX_A);
+        mti = 0;
+    }
+
+    // Returns the next tempered 64-bit word (genrand64_int64).
+    public long nextLong() {
+        if (mti >= N) {
+            twist();
+        }
+
+        long x = mt[mti++];
+        x ^= (x >>> 29) & TEMPERING_MASK_D;
+        x ^= (x << 17) & TEMPERING_MASK_B;
+        x ^= (x << 37) & TEMPERING_MASK_C;
+        x ^= (x >>> 43);
+
+        return x;
+    }
+
+    // The upper half of a 64-bit word.
+    public int nextInt() {
+        return (int) (nextLong() >>> 32);
+    }
+
+    // Fills the array eight bytes per word, most significant byte first.
+    public void nextBytes(byte[] bytes) {
+        int x = 0;
+
+        for (int limit = bytes.length & ~0x7; x < limit; x += 8) {
+            long y = nextLong();
+
+            for (int b = 0; b < 8; b++, y <<= 8) {
+                bytes[x + b] = (byte) (y >>> 56);
+            }
+        }
+
+        if (x < bytes.length) {
+            long y = nextLong();
+
+            for (; x < bytes.length; x++, y <<= 8) {
+                bytes[x] = (byte) (y >>> 56);
+            }
+        }
+    }
+
+    // Advances the generator by 2^128 words, as if nextLong() had been called
+    // that many times. Generators spaced this far apart never overlap in practice.
+    public void jump() {
+        MersenneJump64.apply(mt, MersenneJump64.powerOfTwo(JUMP_LOG2));
+    }
+
+    // Returns a copy that carries on from this generator's current position,
+    // then jumps this generator ahead so the two streams never overlap.
+    public MersenneTwister64 split() {
+        MersenneTwister64 child = (MersenneTwister64) clone();
+        jump();
+        return child;
+    }
+
+    // Writes a checksummed state record at the buffer's position, in the buffer's byte order.
+    public void writeState(ByteBuffer buffer) {
+        if (buffer.remaining() < STATE_BYTES) {
+            throw new BufferOverflowException();
+        }
+
+        int start = buffer.position();
+
+        StateFormat.writeHeader(buffer, StateFormat.ENGINE_MT19937_64);
+        buffer.putInt(mti);
+        buffer.asLongBuffer().put(mt);
+        buffer.position(buffer.position() + 8 * N);
+        StateFormat.writeChecksum(buffer, start);
+    }
+
+    // Reads a record written by writeState(ByteBuffer), whatever byte order it
+    // was written in. Nothing changes unless the whole record checks out.
+    public void readState(ByteBuffer buffer) throws IOException {
+        ByteOrder order = buffer.order();
+        ByteOrder stored = StateFormat.readHeader(buffer, StateFormat.ENGINE_MT19937_64, STATE_BYTES);
+
+        try {
+            buffer.order(stored);
+
+            int index = buffer.getInt();
+
+            if (index < 0 || index > N) {
+                throw new IOException("Corrupt MT19937-64 state record (mti: " + index + ")");
+            }
+
+            buffer.asLongBuffer().get(mt);
+            buffer.position(buffer.position() + 8 * N + StateFormat.TRAILER_BYTES);
+            mti = index;
+        } finally {
+            buffer.order(order);
+        }
+    }
+
+    @Override
+    public int checkpointBytes() {
+        return STATE_BYTES;
+    }
+
+    @Override
+    public void writeCheckpoint(ByteBuffer buffer) {
+        writeState(buffer);
+    }
+
+    @Override
+    public void readCheckpoint(ByteBuffer buffer) throws IOException {
+        readState(buffer);
+    }
+}
@@ -0,0 +1,75 @@
+package dev.larrabyte.huff;
+
+import java.util.Random;
+
+// Lets a MersenneTwister stand in wherever an API insists on java.util.Random
+// (Collections.shuffle, Minecraft and Forge utilities, ...). Every draw goes
+// straight to the twister, so the AtomicLong seed and CAS loop in Random are
+// never touched. Like the twister itself, it is meant to have a single owner.
+public class MersenneTwisterRandom extends Random {
+    private static final long serialVersionUID = 4785395716407211563L;
+
+    // Still null while Random's constructor calls setSeed().
+    private final MersenneTwister twister;
+
+    public MersenneTwisterRandom(MersenneTwister twister) {
+        super(0L);
+        this.twister = twister;
+    }
+
+    public MersenneTwister getTwister() {
+        return twister;
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        if (twister != null) {
+            twister.setSeed(seed);
+        }
+    }
+
+    @Override
+    protected int next(int bits) {
+        return twister.nextInt() >>> (32 - bits);
+    }
+
+    @Override
+    public int nextInt() {
+        return twister.nextInt();
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return twister.nextInt(bound);
+    }
+
+    @Override
+    public long nextLong() {
+        return twister.nextLong();
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return twister.nextBoolean();
+    }
+
+    @Override
+    public float nextFloat() {
+        return twister.nextFloat();
+    }
+
+    @Override
+    public double nextDouble() {
+        return twister.nextDouble();
+    }
+
+    @Override
+    public double nextGaussian() {
+        return twister.nextGaussian();
+    }
+
+    @Override
+    public void nextBytes(byte[] bytes) {
+        twister.nextBytes(bytes);
+    }
+}
@@ -0,0 +1,232 @@
+package dev.larrabyte.huff;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// PCG64, i.e. pcg_setseq_128_xsl_rr_64 (O'Neill, 2014).
+//
+// A 128-bit linear congruential generator whose output is the xor of its two
+// halves, rotated by the top six bits. The state and the stream increment are
+// two longs each, so the whole generator fits in one cache line. The period
+// is 2^128 and jump() moves 2^96 draws ahead along the same sequence, which is
+// what split() uses to hand out substreams.
+//
+// Like MersenneTwister, instances are not thread-safe. Wrap one in a
+// ConcurrentRandomSource to share it between threads.
+public class Pcg64 implements SplittableRandomSource, Checkpointable, Cloneable {
+    private static final long serialVersionUID = 2305227916283410765L;
+
+    // Bytes written by writeState(ByteBuffer): header, four longs, checksum.
+    public static final int STATE_BYTES = StateFormat.HEADER_BYTES + 32 + StateFormat.TRAILER_BYTES;
+
+    // The 128-bit LCG multiplier, 2549297995355413924 * 2^64 + 4865540595714422341.
+    private static final long MULTIPLIER_HI = 0x2360ED051FC65DA4L;
+    private static final long MULTIPLIER_LO = 0x4385DF649FCCF645L;
+
+    // Distance of jump() as a power of two. Leaves room for 2^32 substreams.
+    private static final int JUMP_LOG2 = 96;
+
+    // Stream used when none is given.
+    private static final long DEFAULT_STREAM = 0x5851F42D4C957F2DL;
+
+    private long stateHi, stateLo;
+    private long incHi, incLo;
+
+    // Constructor (uses time as the default seed).
+    public Pcg64() {
+        this(System.currentTimeMillis());
+    }
+
+    // Constructor using a given seed on the default stream.
+    public Pcg64(long seed) {
+        this(seed, DEFAULT_STREAM);
+    }
+
+    // Constructor using a given seed and stream, as pcg64_srandom_r(seed, stream).
+    public Pcg64(long seed, long stream) {
+        setSeed(seed, stream);
+    }
+
+    public Object clone() {
+        try {
+            return super.clone();
+        } catch (CloneNotSupportedException e) {
+            // This should never happen!
+            throw new InternalError();
+        }
+    }
+
+    public boolean stateEquals(Object o) {
+        if (o == this) return true;
+        if (o == null || !(o instanceof Pcg64)) return false;
+
+        Pcg64 other = (Pcg64) o;
+        return stateHi == other.stateHi && stateLo == other.stateLo && incHi == other.incHi && incLo == other.incLo;
+    }
+
+    // Reseeds on the current stream.
+    public void setSeed(long seed) {
+        setSeed(seed, (incHi << 63) | (incLo >>> 1));
+    }
+
+    public void setSeed(long seed, long stream) {
+        stateHi = 0;
+        stateLo = 0;
+        incHi = stream >>> 63;
+        incLo = (stream << 1) | 0x1L;
+
+        step();
+        long lo = stateLo + seed;
+        stateHi += Long.compareUnsigned(lo, stateLo) < 0 ? 1 : 0;
+        stateLo = lo;
+        step();
+    }
+
+    // state = state * MULTIPLIER + inc (mod 2^128).
+    private void step() {
+        long lo = stateLo;
+        long hi = UnsignedMath.multiplyHigh(lo, MULTIPLIER_LO) + lo * MULTIPLIER_HI + stateHi * MULTIPLIER_LO;
+        lo *= MULTIPLIER_LO;
+
+        long sum = lo + incLo;
+        stateHi = hi + incHi + (Long.compareUnsigned(sum, lo) < 0 ? 1 : 0);
+        stateLo = sum;
+    }
+
+    public long nextLong() {
+        step();
+        return Long.rotateRight(stateHi ^ stateLo, (int) (stateHi >>> 58));
+    }
+
+    // The upper half of a 64-bit word.
+    public int nextInt() {
+        return (int) (nextLong() >>> 32);
+    }
+
+    // Fills the array eight bytes per word, most significant byte first.
+    public void nextBytes(byte[] bytes) {
+        int x = 0;
+
+        for (int limit = bytes.length & ~0x7; x < limit; x += 8) {
+            long y = nextLong();
+
+            for (int b = 0; b < 8; b++, y <<= 8) {
+                bytes[x + b] = (byte) (y >>> 56);
+            }
+        }
+
+        if (x < bytes.length) {
+            long y = nextLong();
+
+            for (; x < bytes.length; x++, y <<= 8) {
+                bytes[x] = (byte) (y >>> 56);
+            }
+        }
+    }
+
+    // Advances the generator 2^96 draws.
+    public void jump() {
+        advancePowerOfTwo(JUMP_LOG2);
+    }
+
+    // Advances the generator 2^k draws in k squarings, after Brown, "Random
+    // Number Generation with Arbitrary Strides". Stepping 2^k times is the
+    // affine map state * mult + plus, and doubling the stride squares it.
+    void advancePowerOfTwo(int k) {
+        long multHi = MULTIPLIER_HI, multLo = MULTIPLIER_LO;
+        long plusHi = incHi, plusLo = incLo;
+
+        for (int i = 0; i < k; i++) {
+            // plus = (mult + 1) * plus.
+            long m1Lo = multLo + 1;
+            long m1Hi = multHi + (m1Lo == 0 ? 1 : 0);
+            long hi = UnsignedMath.multiplyHigh(m1Lo, plusLo) + m1Lo * plusHi + m1Hi * plusLo;
+            plusLo *= m1Lo;
+            plusHi = hi;
+
+            // mult = mult * mult.
+            hi = UnsignedMath.multiplyHigh(multLo, multLo) + 2 * multLo * multHi;
+            multLo *= multLo;
+            multHi = hi;
+        }
+
+        // state = state * mult + plus.
+        long lo = stateLo;
+        long hi = UnsignedMath.multiplyHigh(lo, multLo) + lo * multHi + stateHi * multLo;
+        lo *= multLo;
+
+        long sum = lo + plusLo;
+        stateHi = hi + plusHi + (Long.compareUnsigned(sum, lo) < 0 ? 1 : 0);
+        stateLo = sum;
+    }
+
+    // Returns a copy that carries on from this generator's current position,
+    // then jumps this generator ahead so the two streams never overlap. Both
+    // stay on the same sequence, just 2^96 draws apart.
+    public Pcg64 split() {
+        Pcg64 child = (Pcg64) clone();
+        jump();
+        return child;
+    }
+
+    // Writes a checksummed state record at the buffer's position, in the buffer's byte order.
+    public void writeState(ByteBuffer buffer) {
+        if (buffer.remaining() < STATE_BYTES) {
+            throw new BufferOverflowException();
+        }
+
+        int start = buffer.position();
+
+        StateFormat.writeHeader(buffer, StateFormat.ENGINE_PCG64);
+        buffer.putLong(stateHi);
+        buffer.putLong(stateLo);
+        buffer.putLong(incHi);
+        buffer.putLong(incLo);
+        StateFormat.writeChecksum(buffer, start);
+    }
+
+    // Reads a record written by writeState(ByteBuffer), whatever byte order it
+    // was written in. Nothing changes unless the whole record checks out.
+    public void readState(ByteBuffer buffer) throws IOException {
+        ByteOrder order = buffer.order();
+        ByteOrder stored = StateFormat.readHeader(buffer, StateFormat.ENGINE_PCG64, STATE_BYTES);
+
+        try {
+            buffer.order(stored);
+
+            long sh = buffer.getLong();
+            long sl = buffer.getLong();
+            long ih = buffer.getLong();
+            long il = buffer.getLong();
+
+            if ((il & 0x1) == 0 || (ih >>> 1) != 0) {
+                throw new IOException("Corrupt PCG64 state record (bad increment).");
+            }
+
+            buffer.position(buffer.position() + StateFormat.TRAILER_BYTES);
+            stateHi = sh;
+            stateLo = sl;
+            incHi = ih;
+            incLo = il;
+        } finally {
+            buffer.order(order);
+        }
+    }
+
+    @Override
+    public int checkpointBytes() {
+        return STATE_BYTES;
+    }
+
+    @Override
+    public void writeCheckpoint(ByteBuffer buffer) {
+        writeState(buffer);
+    }
+
+    @Override
+    public void readCheckpoint(ByteBuffer buffer) throws IOException {
+        readState(buffer);
+    }
+}
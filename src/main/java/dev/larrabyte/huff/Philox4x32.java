@@ -0,0 +1,274 @@
+package dev.larrabyte.huff;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// Philox4x32-10 (Salmon et al., "Parallel Random Numbers: As Easy as 1, 2, 3", 2011).
+//
+// A counter-based generator: word i of the stream is a keyed bijection of
+// i alone, with no state carried from one word to the next. Each 128-bit
+// counter value (the block index, i / 4) runs through ten rounds of 32-bit
+// multiplies and xors, giving four words. So any position can be read in
+// O(1) with at(), the cursor can be moved with setPosition(), and fill() can
+// be run by any number of threads on disjoint index ranges without sharing
+// anything but the key. Different keys are independent streams.
+//
+// The sequential draws keep a cursor and the last block, so like the other
+// engines an instance is not thread-safe. at() and fill() only read the key.
+public class Philox4x32 implements SplittableRandomSource, Checkpointable, Cloneable {
+    private static final long serialVersionUID = 8815236412950827741L;
+
+    // Bytes written by writeState(ByteBuffer): header, key, position, checksum.
+    public static final int STATE_BYTES = StateFormat.HEADER_BYTES + 16 + StateFormat.TRAILER_BYTES;
+
+    // Round multipliers and Weyl key increments, as in Random123.
+    private static final int M0 = 0xD2511F53;
+    private static final int M1 = 0xCD9E8D57;
+    private static final int W0 = 0x9E3779B9;
+    private static final int W1 = 0xBB67AE85;
+    private static final int ROUNDS = 10;
+
+    // Per-thread block for at() and the ragged ends of fill(). Those only read
+    // the key, so they can't borrow the instance's block, and a new array per
+    // call is all garbage.
+    private static final ThreadLocal<int[]> SCRATCH = ThreadLocal.withInitial(() -> new int[4]);
+
+    private int key0, key1;
+
+    // Index of the next word nextInt() returns.
+    private long position;
+
+    // The block containing the last word drawn, and its index (-1 for none).
+    private transient int[] block = new int[4];
+    private transient long blockIndex = -1;
+
+    // Constructor (uses time as the default key).
+    public Philox4x32() {
+        this(System.currentTimeMillis());
+    }
+
+    // Constructor using a given key, starting at position 0. Each key is its own stream.
+    public Philox4x32(long key) {
+        setSeed(key);
+    }
+
+    public Object clone() {
+        try {
+            Philox4x32 f = (Philox4x32) super.clone();
+            f.block = (int[]) block.clone();
+            return f;
+        } catch (CloneNotSupportedException e) {
+            // This should never happen!
+            throw new InternalError();
+        }
+    }
+
+    public boolean stateEquals(Object o) {
+        if (o == this) return true;
+        if (o == null || !(o instanceof Philox4x32)) return false;
+
+        Philox4x32 other = (Philox4x32) o;
+        return key0 == other.key0 && key1 == other.key1 && position == other.position;
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        block = new int[4];
+        blockIndex = -1;
+    }
+
+    // Sets the key (all 64 bits are used) and goes back to position 0.
+    public void setSeed(long key) {
+        key0 = (int) key;
+        key1 = (int) (key >>> 32);
+        position = 0;
+        blockIndex = -1;
+    }
+
+    public long getKey() {
+        return ((long) key1 << 32) | ((long) key0 & 0xFFFFFFFFL);
+    }
+
+    // Index of the word the next nextInt() will return.
+    public long getPosition() {
+        return position;
+    }
+
+    // Moves the cursor to any word of the stream, forwards or back.
+    public void setPosition(long index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("index must not be negative, got: " + index);
+        }
+
+        position = index;
+    }
+
+    // Returns word index of the stream without moving the cursor.
+    public int at(long index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("index must not be negative, got: " + index);
+        }
+
+        long b = index >>> 2;
+        int lane = (int) index & 0x3;
+        int[] out = SCRATCH.get();
+        block((int) b, (int) (b >>> 32), 0, 0, key0, key1, out, 0);
+        return out[lane];
+    }
+
+    // Runs the ten rounds on one counter and writes the four words to out[off..off + 3].
+    static void block(int c0, int c1, int c2, int c3, int k0, int k1, int[] out, int off) {
+        for (int r = 0; r < ROUNDS; r++) {
+            if (r > 0) {
+                k0 += W0;
+                k1 += W1;
+            }
+
+            long p0 = (M0 & 0xFFFFFFFFL) * (c0 & 0xFFFFFFFFL);
+            long p1 = (M1 & 0xFFFFFFFFL) * (c2 & 0xFFFFFFFFL);
+
+            c0 = (int) (p1 >>> 32) ^ c1 ^ k0;
+            c1 = (int) p1;
+            c2 = (int) (p0 >>> 32) ^ c3 ^ k1;
+            c3 = (int) p0;
+        }
+
+        out[off] = c0;
+        out[off + 1] = c1;
+        out[off + 2] = c2;
+        out[off + 3] = c3;
+    }
+
+    public int nextInt() {
+        long p = position++;
+        long b = p >>> 2;
+
+        if (b != blockIndex) {
+            block((int) b, (int) (b >>> 32), 0, 0, key0, key1, block, 0);
+            blockIndex = b;
+        }
+
+        return block[(int) p & 0x3];
+    }
+
+    // Two consecutive words, the first one as the high half.
+    public long nextLong() {
+        int y = nextInt();
+        int z = nextInt();
+
+        return (((long) y) << 32) + (z & 0xFFFFFFFFL);
+    }
+
+    // Fills dst with words startIndex, startIndex + 1, ... of the stream. The
+    // cursor isn't used or moved, so threads can fill disjoint ranges at once.
+    public void fill(int[] dst, long startIndex) {
+        fill(dst, 0, dst.length, startIndex);
+    }
+
+    public void fill(int[] dst, int off, int len, long startIndex) {
+        if (off < 0 || len < 0 || off > dst.length - len) {
+            String reason = String.format("Range [%d, %d + %d) out of bounds for length %d", off, off, len, dst.length);
+            throw new IndexOutOfBoundsException(reason);
+        }
+
+        if (startIndex < 0) {
+            throw new IllegalArgumentException("startIndex must not be negative, got: " + startIndex);
+        }
+
+        final int k0 = key0, k1 = key1;
+        final int end = off + len;
+        long b = startIndex >>> 2;
+        int lane = (int) startIndex & 0x3;
+
+        // A partial block at either end goes through a scratch block.
+        int[] scratch = SCRATCH.get();
+
+        if (lane != 0 && off < end) {
+            block((int) b, (int) (b >>> 32), 0, 0, k0, k1, scratch, 0);
+
+            for (; lane < 4 && off < end; lane++) {
+                dst[off++] = scratch[lane];
+            }
+
+            b++;
+        }
+
+        for (; end - off >= 4; off += 4, b++) {
+            block((int) b, (int) (b >>> 32), 0, 0, k0, k1, dst, off);
+        }
+
+        if (off < end) {
+            block((int) b, (int) (b >>> 32), 0, 0, k0, k1, scratch, 0);
+
+            for (lane = 0; off < end; lane++) {
+                dst[off++] = scratch[lane];
+            }
+        }
+    }
+
+    // Returns a generator keyed by the next draw from this one. Different
+    // keys are unrelated streams, so the child can be used from position 0.
+    public Philox4x32 split() {
+        return new Philox4x32(nextLong());
+    }
+
+    // Writes a checksummed state record at the buffer's position, in the buffer's byte order.
+    public void writeState(ByteBuffer buffer) {
+        if (buffer.remaining() < STATE_BYTES) {
+            throw new BufferOverflowException();
+        }
+
+        int start = buffer.position();
+
+        StateFormat.writeHeader(buffer, StateFormat.ENGINE_PHILOX4X32);
+        buffer.putInt(key0);
+        buffer.putInt(key1);
+        buffer.putLong(position);
+        StateFormat.writeChecksum(buffer, start);
+    }
+
+    // Reads a record written by writeState(ByteBuffer), whatever byte order it
+    // was written in. Nothing changes unless the whole record checks out.
+    public void readState(ByteBuffer buffer) throws IOException {
+        ByteOrder order = buffer.order();
+        ByteOrder stored = StateFormat.readHeader(buffer, StateFormat.ENGINE_PHILOX4X32, STATE_BYTES);
+
+        try {
+            buffer.order(stored);
+
+            int k0 = buffer.getInt();
+            int k1 = buffer.getInt();
+            long p = buffer.getLong();
+
+            if (p < 0) {
+                throw new IOException("Corrupt Philox4x32 state record (position: " + p + ")");
+            }
+
+            buffer.position(buffer.position() + StateFormat.TRAILER_BYTES);
+            key0 = k0;
+            key1 = k1;
+            position = p;
+            blockIndex = -1;
+        } finally {
+            buffer.order(order);
+        }
+    }
+
+    @Override
+    public int checkpointBytes() {
+        return STATE_BYTES;
+    }
+
+    @Override
+    public void writeCheckpoint(ByteBuffer buffer) {
+        writeState(buffer);
+    }
+
+    @Override
+    public void readCheckpoint(ByteBuffer buffer) throws IOException {
+        readState(buffer);
+    }
+}
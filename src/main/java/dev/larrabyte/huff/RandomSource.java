@@ -0,0 +1,218 @@
+package dev.larrabyte.huff;
+
+// A source of uniformly random bits, plus every draw derived from them.
+//
+// An engine only has to provide nextInt() and nextLong(). The defaults below
+// are the derivations MersenneTwister has always used, so engines that keep
+// them stay comparable with each other. nextDouble() is the exception: it
+// defaults to the top 53 bits of one nextLong(), as genrand_res53() does for
+// the 64-bit engines. Engines may override anything they can do faster or
+// need to do differently.
+//
+// Nothing here is thread-safe unless the implementation says so.
+public strictfp interface RandomSource {
+    int nextInt();
+
+    long nextLong();
+
+    default short nextShort() {
+        return (short) (nextInt() >>> 16);
+    }
+
+    default char nextChar() {
+        return (char) (nextInt() >>> 16);
+    }
+
+    default byte nextByte() {
+        return (byte) (nextInt() >>> 24);
+    }
+
+    default boolean nextBoolean() {
+        return (nextInt() >>> 31) != 0;
+    }
+
+    // Generates a boolean with a probability of returning true.
+    default boolean nextBoolean(float probability) {
+        if (probability < 0.0f || probability > 1.0f) {
+            throw new IllegalArgumentException("probability must be between 0.0 and 1.0 inclusive.");
+        }
+
+        if (probability == 0.0f) {
+            return false;
+        } else if (probability == 1.0f) {
+            return true;
+        }
+
+        return (nextInt() >>> 8) / ((float) (1 << 24)) < probability;
+    }
+
+    // Generates a boolean with a probability of returning true.
+    default boolean nextBoolean(double probability) {
+        if (probability < 0.0 || probability > 1.0) {
+            throw new IllegalArgumentException("probability must be between 0.0 and 1.0 inclusive.");
+        }
+
+        if (probability == 0.0) {
+            return false;
+        } else if (probability == 1.0) {
+            return true;
+        }
+
+        return nextDouble() < probability;
+    }
+
+    // Fills the array four bytes per word, most significant byte first. Any
+    // bytes left over at the end come from the top of one more word.
+    default void nextBytes(byte[] bytes) {
+        int x = 0;
+
+        for (int limit = bytes.length & ~0x3; x < limit; x += 4) {
+            int y = nextInt();
+            bytes[x] = (byte) (y >>> 24);
+            bytes[x + 1] = (byte) (y >>> 16);
+            bytes[x + 2] = (byte) (y >>> 8);
+            bytes[x + 3] = (byte) y;
+        }
+
+        if (x < bytes.length) {
+            int y = nextInt();
+
+            for (; x < bytes.length; x++, y <<= 8) {
+                bytes[x] = (byte) (y >>> 24);
+            }
+        }
+    }
+
+    // Returns a uniformly random number from 0 to n-1.
+    default int nextInt(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be positive, got: " + n);
+        }
+
+        // i.e. n is a power of 2.
+        if ((n & -n) == n) {
+            return (int) ((n * (long) (nextInt() >>> 1)) >> 31);
+        }
+
+        int bits, val;
+
+        do {
+            bits = nextInt() >>> 1;
+            val = bits % n;
+        } while (bits - val + (n - 1) < 0);
+
+        return val;
+    }
+
+    // Returns a uniformly random number from 0 to n-1.
+    default long nextLong(long n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be positive, got: " + n);
+        }
+
+        long bits, val;
+
+        do {
+            bits = nextLong() >>> 1;
+            val = bits % n;
+        } while (bits - val + (n - 1) < 0);
+
+        return val;
+    }
+
+    // Returns an integer drawn uniformly from a to b-1.
+    default int nextInt(int a, int b) {
+        if (b <= a) {
+            String reason = String.format("b must be greater than a! (a: %d, b: %d)", a, b);
+            throw new IllegalArgumentException(reason);
+        }
+
+        return this.nextInt(b - a) + a;
+    }
+
+    // Returns an integer drawn uniformly from a to b-1.
+    default long nextLong(long a, long b) {
+        if (b <= a) {
+            String reason = String.format("b must be greater than a! (a: %d, b: %d)", a, b);
+            throw new IllegalArgumentException(reason);
+        }
+
+        return this.nextLong(b - a) + a;
+    }
+
+    // Returns a random float from [0.0f, 1.0f).
+    default float nextFloat() {
+        return (nextInt() >>> 8) / ((float) (1 << 24));
+    }
+
+    // Returns a float in the range from 0.0f to 1.0f, possibly inclusive of 0.0f and 1.0f themselves.
+    default float nextFloat(boolean includeZero, boolean includeOne) {
+        float d = 0.0f;
+
+        do {
+            // Grab a value, initially from half-open [0.0f, 1.0f).
+            d = nextFloat();
+
+            // If including one, push to [1.0f, 2.0f).
+            if (includeOne && nextBoolean()) {
+                d += 1.0f;
+            }
+        } while ((d > 1.0f) || (!includeZero && d == 0.0f));
+
+        return d;
+    }
+
+    // Returns a floating-point number in the range of [a, b).
+    default float nextFloat(float a, float b) {
+        if (b <= a) {
+            String reason = String.format("b must be greater than a! (a: %f, b: %f)", a, b);
+            throw new IllegalArgumentException(reason);
+        }
+
+        float fractional = this.nextFloat() * (b - a);
+        return a + fractional;
+    }
+
+    // Returns a random double in the range [0.0, 1.0).
+    default double nextDouble() {
+        return (nextLong() >>> 11) / (double) (1L << 53);
+    }
+
+    // Returns a double between 0.0 and 1.0, potentially inclusive.
+    default double nextDouble(boolean includeZero, boolean includeOne) {
+        double d = 0.0;
+
+        do {
+            // Grab a value, initially from half-open [0.0, 1.0).
+            d = nextDouble();
+
+            // If including one, push to [1.0, 2.0).
+            if (includeOne && nextBoolean()) {
+                d += 1.0;
+            }
+        } while ((d > 1.0) || (!includeZero && d == 0.0));
+
+        return d;
+    }
+
+    // Returns a double floating-point number in the range of [a, b).
+    default double nextDouble(double a, double b) {
+        if (b <= a) {
+            String reason = String.format("b must be greater than a! (a: %f, b: %f)", a, b);
+            throw new IllegalArgumentException(reason);
+        }
+
+        double fractional = this.nextDouble() * (b - a);
+        return a + fractional;
+    }
+
+    // Returns a standard normal deviate (Ziggurat method).
+    default double nextGaussian() {
+        return Ziggurat.normal(this);
+    }
+
+    // Returns an exponentially distributed double with rate 1 (mean 1).
+    default double nextExponential() {
+        return Ziggurat.exponential(this);
+    }
+}
@@ -0,0 +1,285 @@
+package dev.larrabyte.huff;
+
+import java.util.Spliterator;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+// Sized spliterators over a generator's draws, behind MersenneTwister's
+// ints(), longs() and doubles() streams.
+//
+// Each spliterator owns its generator. trySplit() hands the first half of the
+// range to a split() of it, which carries on from the current position, and
+// keeps the jumped-ahead original for the second half. So a parallel pipeline
+// never shares a cursor between threads, and a prefix that is never split
+// again yields exactly what a sequential stream would have. Which substream
+// the rest comes from depends on how the pipeline splits, as with
+// SplittableRandom.
+final class RandomSpliterators {
+    // A split costs a jump, about as much work as a million draws, so
+    // ranges smaller than this are left whole.
+    private static final long MIN_SPLIT = 1L << 20;
+
+    private static final int CHARACTERISTICS = Spliterator.SIZED | Spliterator.SUBSIZED
+            | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+
+    private RandomSpliterators() {}
+
+    // Draws from [origin, bound), even when bound - origin overflows an int.
+    private static int nextInt(RandomSource rng, int origin, int bound) {
+        if (bound - origin > 0) {
+            return rng.nextInt(origin, bound);
+        }
+
+        int r;
+
+        do {
+            r = rng.nextInt();
+        } while (r < origin || r >= bound);
+
+        return r;
+    }
+
+    // Draws from [origin, bound), even when bound - origin overflows a long.
+    private static long nextLong(RandomSource rng, long origin, long bound) {
+        if (bound - origin > 0) {
+            return rng.nextLong(origin, bound);
+        }
+
+        long r;
+
+        do {
+            r = rng.nextLong();
+        } while (r < origin || r >= bound);
+
+        return r;
+    }
+
+    static final class IntSpliterator implements Spliterator.OfInt {
+        private final SplittableRandomSource rng;
+        private long index;
+        private final long fence;
+        private final boolean bounded;
+        private final int origin, bound;
+
+        IntSpliterator(SplittableRandomSource rng, long index, long fence, boolean bounded, int origin, int bound) {
+            this.rng = rng;
+            this.index = index;
+            this.fence = fence;
+            this.bounded = bounded;
+            this.origin = origin;
+            this.bound = bound;
+        }
+
+        @Override
+        public IntSpliterator trySplit() {
+            long lo = index;
+            long mid = (lo + fence) >>> 1;
+
+            if (fence - lo < MIN_SPLIT) {
+                return null;
+            }
+
+            index = mid;
+            return new IntSpliterator(rng.split(), lo, mid, bounded, origin, bound);
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (action == null) {
+                throw new NullPointerException();
+            }
+
+            if (index >= fence) {
+                return false;
+            }
+
+            action.accept(bounded ? nextInt(rng, origin, bound) : rng.nextInt());
+            index++;
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            if (action == null) {
+                throw new NullPointerException();
+            }
+
+            final SplittableRandomSource rng = this.rng;
+            long i = index;
+            index = fence;
+
+            if (bounded) {
+                for (; i < fence; i++) {
+                    action.accept(nextInt(rng, origin, bound));
+                }
+            } else {
+                for (; i < fence; i++) {
+                    action.accept(rng.nextInt());
+                }
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+    }
+
+    static final class LongSpliterator implements Spliterator.OfLong {
+        private final SplittableRandomSource rng;
+        private long index;
+        private final long fence;
+        private final boolean bounded;
+        private final long origin, bound;
+
+        LongSpliterator(SplittableRandomSource rng, long index, long fence, boolean bounded, long origin, long bound) {
+            this.rng = rng;
+            this.index = index;
+            this.fence = fence;
+            this.bounded = bounded;
+            this.origin = origin;
+            this.bound = bound;
+        }
+
+        @Override
+        public LongSpliterator trySplit() {
+            long lo = index;
+            long mid = (lo + fence) >>> 1;
+
+            if (fence - lo < MIN_SPLIT) {
+                return null;
+            }
+
+            index = mid;
+            return new LongSpliterator(rng.split(), lo, mid, bounded, origin, bound);
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (action == null) {
+                throw new NullPointerException();
+            }
+
+            if (index >= fence) {
+                return false;
+            }
+
+            action.accept(bounded ? nextLong(rng, origin, bound) : rng.nextLong());
+            index++;
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            if (action == null) {
+                throw new NullPointerException();
+            }
+
+            final SplittableRandomSource rng = this.rng;
+            long i = index;
+            index = fence;
+
+            if (bounded) {
+                for (; i < fence; i++) {
+                    action.accept(nextLong(rng, origin, bound));
+                }
+            } else {
+                for (; i < fence; i++) {
+                    action.accept(rng.nextLong());
+                }
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+    }
+
+    static final class DoubleSpliterator implements Spliterator.OfDouble {
+        private final SplittableRandomSource rng;
+        private long index;
+        private final long fence;
+        private final boolean bounded;
+        private final double origin, bound;
+
+        DoubleSpliterator(SplittableRandomSource rng, long index, long fence, boolean bounded, double origin, double bound) {
+            this.rng = rng;
+            this.index = index;
+            this.fence = fence;
+            this.bounded = bounded;
+            this.origin = origin;
+            this.bound = bound;
+        }
+
+        @Override
+        public DoubleSpliterator trySplit() {
+            long lo = index;
+            long mid = (lo + fence) >>> 1;
+
+            if (fence - lo < MIN_SPLIT) {
+                return null;
+            }
+
+            index = mid;
+            return new DoubleSpliterator(rng.split(), lo, mid, bounded, origin, bound);
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            if (action == null) {
+                throw new NullPointerException();
+            }
+
+            if (index >= fence) {
+                return false;
+            }
+
+            action.accept(bounded ? rng.nextDouble(origin, bound) : rng.nextDouble());
+            index++;
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(DoubleConsumer action) {
+            if (action == null) {
+                throw new NullPointerException();
+            }
+
+            final SplittableRandomSource rng = this.rng;
+            long i = index;
+            index = fence;
+
+            if (bounded) {
+                for (; i < fence; i++) {
+                    action.accept(rng.nextDouble(origin, bound));
+                }
+            } else {
+                for (; i < fence; i++) {
+                    action.accept(rng.nextDouble());
+                }
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package dev.larrabyte.huff;
+
+import java.util.Arrays;
+
+// Jumping an SFMT19937 state ahead (see JumpPolynomials for the method). One
+// step of the recurrence makes one 128-bit lane, i.e. four 32-bit words.
+//
+// Unlike MT19937, every bit of the 19968-bit state feeds the recurrence, so
+// the modulus is the full characteristic polynomial of degree 19968: phi(t),
+// of degree 19937, times a factor of degree 31 that period certification
+// deals with. It's found from twice 19968 output bits.
+final class SfmtJump {
+    // Lanes, and longs of state (two per lane, low half first).
+    private static final int N = 156;
+    private static final int LONGS = 2 * N;
+    private static final int POS1 = 122;
+    private static final int SL1 = 18;
+    private static final int SR1 = 11;
+    private static final int SL2_BITS = 8;
+    private static final int SR2_BITS = 8;
+    private static final long MSK_LO = (0xDDFECB7FL << 32 | 0xDFFFFFEFL) & 0x001FFFFF001FFFFFL;
+    private static final long MSK_HI = (0xBFFFFFF6L << 32 | 0xBFFAFFFFL) & 0x001FFFFF001FFFFFL;
+    private static final long SL1_MASK = 0xFFFC0000FFFC0000L;
+
+    // Bits of state.
+    private static final int STATE_BITS = 128 * N;
+
+    // Starting states tried before giving up on finding the full polynomial.
+    private static final int MAX_ATTEMPTS = 16;
+
+    private SfmtJump() {}
+
+    // The modulus is only derived when a jump is first requested.
+    private static final class Modulus {
+        static final JumpPolynomials POLYNOMIALS = new JumpPolynomials(minimalPolynomial());
+    }
+
+    // Returns t^(2^k) reduced by the minimal polynomial.
+    static long[] powerOfTwo(int k) {
+        return Modulus.POLYNOMIALS.powerOfTwo(k);
+    }
+
+    // Returns t^n reduced by the minimal polynomial.
+    static long[] power(long n) {
+        return Modulus.POLYNOMIALS.power(n);
+    }
+
+    // Replaces the 156-lane window in sfmt with g(A) applied to it.
+    static void apply(long[] sfmt, long[] g) {
+        long[] work = sfmt.clone();
+        long[] acc = new long[LONGS];
+        int p = 0;
+
+        for (int i = 0, top = JumpPolynomials.bitLength(g); i < top; i++) {
+            if (((g[i >>> 6] >>> (i & 63)) & 0x1) != 0) {
+                int start = 2 * p;
+
+                for (int j = start; j < LONGS; j++) {
+                    acc[j - start] ^= work[j];
+                }
+
+                for (int j = 0; j < start; j++) {
+                    acc[LONGS - start + j] ^= work[j];
+                }
+            }
+
+            p = step(work, p);
+        }
+
+        System.arraycopy(acc, 0, sfmt, 0, LONGS);
+    }
+
+    // One incremental step of the recurrence on a rotating window of lanes:
+    // the oldest lane, at p, is replaced by the next one.
+    static int step(long[] s, int p) {
+        int a = 2 * p;
+        int b = 2 * (p + POS1 < N ? p + POS1 : p + POS1 - N);
+        int c = 2 * (p + N - 2 < N ? p + N - 2 : p - 2);
+        int d = 2 * (p + N - 1 < N ? p + N - 1 : p - 1);
+
+        long alo = s[a], ahi = s[a + 1];
+        long lo = alo ^ (alo << SL2_BITS)
+                ^ ((s[b] >>> SR1) & MSK_LO)
+                ^ ((s[c] >>> SR2_BITS) | (s[c + 1] << (64 - SR2_BITS)))
+                ^ ((s[d] << SL1) & SL1_MASK);
+        long hi = ahi ^ ((ahi << SL2_BITS) | (alo >>> (64 - SL2_BITS)))
+                ^ ((s[b + 1] >>> SR1) & MSK_HI)
+                ^ (s[c + 1] >>> SR2_BITS)
+                ^ ((s[d + 1] << SL1) & SL1_MASK);
+
+        s[a] = lo;
+        s[a + 1] = hi;
+
+        return p + 1 == N ? 0 : p + 1;
+    }
+
+    // Berlekamp-Massey on the lowest bit of 2 * STATE_BITS generated lanes.
+    // Only a result of full degree is the characteristic polynomial, which
+    // annihilates every state. A starting state with no component in some
+    // invariant subspace gives a proper divisor of it instead, so the search
+    // moves on to another state until it finds the full one.
+    private static long[] minimalPolynomial() {
+        int length = 2 * STATE_BITS;
+        long[] work = new long[LONGS];
+        long[] sequence = new long[(length + 63) >>> 6];
+        long x = 5489L;
+
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            // Filled by SplitMix64.
+            for (int i = 0; i < LONGS; i++) {
+                long z = (x += 0x9E3779B97F4A7C15L);
+                z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+                z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+                work[i] = z ^ (z >>> 31);
+            }
+
+            Arrays.fill(sequence, 0L);
+            int p = 0;
+
+            for (int i = 0; i < length; i++) {
+                int index = p;
+                p = step(work, p);
+
+                if ((work[2 * index] & 0x1L) != 0) {
+                    sequence[i >>> 6] |= 1L << (i & 63);
+                }
+            }
+
+            long[] result = JumpPolynomials.minimalPolynomial(sequence, length, 0);
+
+            if (JumpPolynomials.bitLength(result) - 1 == STATE_BITS) {
+                return result;
+            }
+        }
+
+        throw new IllegalStateException("No starting state reached linear complexity " + STATE_BITS);
+    }
+}
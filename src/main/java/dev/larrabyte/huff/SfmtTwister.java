@@ -0,0 +1,366 @@
+package dev.larrabyte.huff;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// SIMD-oriented Fast Mersenne Twister (SFMT19937), after Saito and Matsumoto.
+// Each 128-bit lane of state is packed into two longs (low half first), so the
+// recurrence runs as pairs of 64-bit operations rather than eight 32-bit ones.
+// Everything past nextInt() and nextLong() is the RandomSource default.
+//
+// Like MersenneTwister, instances are not thread-safe and take no locks,
+// reseeding included. Wrap one in a ConcurrentRandomSource to share it
+// between threads.
+public strictfp class SfmtTwister implements SplittableRandomSource, Checkpointable, Cloneable {
+    private static final long serialVersionUID = 2970145286516230893L;
+
+    // Period parameters (N is counted in 128-bit lanes, N32 in 32-bit words).
+    private static final int N = 156;
+    private static final int N32 = N * 4;
+    private static final int POS1 = 122;
+    private static final int SL1 = 18;
+    private static final int SR1 = 11;
+
+    // SL2 and SR2 are both one byte, i.e. 128-bit shifts by 8 bits.
+    private static final int SL2_BITS = 8;
+    private static final int SR2_BITS = 8;
+
+    // MSK1..4 packed per lane half. The >>> SR1 and << SL1 shifts are done on
+    // whole longs, so the masks also clear bits that leak across 32-bit words.
+    private static final long MSK_LO = (0xDDFECB7FL << 32 | 0xDFFFFFEFL) & 0x001FFFFF001FFFFFL;
+    private static final long MSK_HI = (0xBFFFFFF6L << 32 | 0xBFFAFFFFL) & 0x001FFFFF001FFFFFL;
+    private static final long SL1_MASK = 0xFFFC0000FFFC0000L;
+
+    // Parity check vector for period certification.
+    private static final int[] PARITY = { 0x00000001, 0x00000000, 0x00000000, 0x13C9E684 };
+
+    // Distance of jump() as a power of two, in 128-bit lanes (2^128 words).
+    private static final int JUMP_LOG2 = 126;
+
+    // Bytes written by writeState(ByteBuffer): header, idx, the state array, checksum.
+    public static final int STATE_BYTES = StateFormat.HEADER_BYTES + 4 + 16 * N + StateFormat.TRAILER_BYTES;
+
+    // Allocated once; reseeding overwrites it in place.
+    private long sfmt[] = new long[N * 2];
+    private int idx;
+
+    public Object clone() {
+        try {
+            SfmtTwister f = (SfmtTwister) super.clone();
+            f.sfmt = (long[]) sfmt.clone();
+            return f;
+        } catch (CloneNotSupportedException e) {
+            // This should never happen!
+            throw new InternalError();
+        }
+    }
+
+    public boolean stateEquals(Object o) {
+        if (o == this) return true;
+        if (o == null || !(o instanceof SfmtTwister)) return false;
+
+        SfmtTwister other = (SfmtTwister) o;
+        if (idx != other.idx) return false;
+
+        for (int x = 0; x < sfmt.length; x++) {
+            if (sfmt[x] != other.sfmt[x]) return false;
+        }
+
+        return true;
+    }
+
+    // Constructor (uses time as the default seed).
+    public SfmtTwister() {
+        this(System.currentTimeMillis());
+    }
+
+    // Constructor using a given seed (only the first 32-bits are used).
+    public SfmtTwister(long seed) {
+        setSeed(seed);
+    }
+
+    // Constructor using an array of integers.
+    public SfmtTwister(int[] array) {
+        setSeed(array);
+    }
+
+    // Reads and writes the state one 32-bit word at a time, in SFMT's word order.
+    private int getWord(int i) {
+        return (int) (sfmt[i >>> 1] >>> ((i & 0x1) << 5));
+    }
+
+    private void setWord(int i, int value) {
+        int shift = (i & 0x1) << 5;
+        long mask = 0xFFFFFFFFL << shift;
+        sfmt[i >>> 1] = (sfmt[i >>> 1] & ~mask) | (((long) value & 0xFFFFFFFFL) << shift);
+    }
+
+    // Initialise the pseudo-random number generator (only first 32-bits of the seed).
+    public void setSeed(long seed) {
+        int prev = (int) (seed & 0xFFFFFFFF);
+        setWord(0, prev);
+
+        for (int i = 1; i < N32; i++) {
+            prev = 1812433253 * (prev ^ (prev >>> 30)) + i;
+            setWord(i, prev);
+        }
+
+        idx = N32;
+        certifyPeriod();
+    }
+
+    // Sets the seed of the generator using an array of integers (init_by_array).
+    public void setSeed(int[] array) {
+        if (array.length == 0) {
+            throw new IllegalArgumentException("Array length must be greater than zero");
+        }
+
+        int lag = 11;
+        int mid = (N32 - lag) / 2;
+        int count = array.length + 1 > N32 ? array.length + 1 : N32;
+        int r;
+
+        // Same as memset(sfmt, 0x8b, ...) in the reference implementation.
+        for (int x = 0; x < sfmt.length; x++) {
+            sfmt[x] = 0x8B8B8B8B8B8B8B8BL;
+        }
+
+        r = initFunc1(getWord(0) ^ getWord(mid) ^ getWord(N32 - 1));
+        setWord(mid, getWord(mid) + r);
+        r += array.length;
+        setWord(mid + lag, getWord(mid + lag) + r);
+        setWord(0, r);
+        count--;
+
+        int i = 1;
+        int j = 0;
+
+        for (; j < count && j < array.length; j++) {
+            r = initFunc1(getWord(i) ^ getWord((i + mid) % N32) ^ getWord((i + N32 - 1) % N32));
+            setWord((i + mid) % N32, getWord((i + mid) % N32) + r);
+            r += array[j] + i;
+            setWord((i + mid + lag) % N32, getWord((i + mid + lag) % N32) + r);
+            setWord(i, r);
+            i = (i + 1) % N32;
+        }
+
+        for (; j < count; j++) {
+            r = initFunc1(getWord(i) ^ getWord((i + mid) % N32) ^ getWord((i + N32 - 1) % N32));
+            setWord((i + mid) % N32, getWord((i + mid) % N32) + r);
+            r += i;
+            setWord((i + mid + lag) % N32, getWord((i + mid + lag) % N32) + r);
+            setWord(i, r);
+            i = (i + 1) % N32;
+        }
+
+        for (j = 0; j < N32; j++) {
+            r = initFunc2(getWord(i) + getWord((i + mid) % N32) + getWord((i + N32 - 1) % N32));
+            setWord((i + mid) % N32, getWord((i + mid) % N32) ^ r);
+            r -= i;
+            setWord((i + mid + lag) % N32, getWord((i + mid + lag) % N32) ^ r);
+            setWord(i, r);
+            i = (i + 1) % N32;
+        }
+
+        idx = N32;
+        certifyPeriod();
+    }
+
+    private static int initFunc1(int x) {
+        return (x ^ (x >>> 27)) * 1664525;
+    }
+
+    private static int initFunc2(int x) {
+        return (x ^ (x >>> 27)) * 1566083941;
+    }
+
+    // Makes sure the initial state lies on the full 2^19937-1 period.
+    private void certifyPeriod() {
+        int inner = 0;
+
+        for (int i = 0; i < 4; i++) {
+            inner ^= getWord(i) & PARITY[i];
+        }
+
+        for (int i = 16; i > 0; i >>= 1) {
+            inner ^= inner >>> i;
+        }
+
+        if ((inner & 0x1) == 1) {
+            return;
+        }
+
+        for (int i = 0; i < 4; i++) {
+            for (int work = 1; work != 0; work <<= 1) {
+                if ((work & PARITY[i]) != 0) {
+                    setWord(i, getWord(i) ^ work);
+                    return;
+                }
+            }
+        }
+    }
+
+    // Regenerates all N lanes of state. Lane i lives at sfmt[2i] (low) and sfmt[2i + 1] (high).
+    private void twist() {
+        final long[] s = this.sfmt;
+        long r1lo = s[2 * (N - 2)], r1hi = s[2 * (N - 2) + 1];
+        long r2lo = s[2 * (N - 1)], r2hi = s[2 * (N - 1) + 1];
+        int i = 0;
+
+        for (; i < N - POS1; i++) {
+            int a = 2 * i;
+            int b = 2 * (i + POS1);
+
+            long alo = s[a], ahi = s[a + 1];
+            long lo = alo ^ (alo << SL2_BITS)
+                    ^ ((s[b] >>> SR1) & MSK_LO)
+                    ^ ((r1lo >>> SR2_BITS) | (r1hi << (64 - SR2_BITS)))
+                    ^ ((r2lo << SL1) & SL1_MASK);
+            long hi = ahi ^ ((ahi << SL2_BITS) | (alo >>> (64 - SL2_BITS)))
+                    ^ ((s[b + 1] >>> SR1) & MSK_HI)
+                    ^ (r1hi >>> SR2_BITS)
+                    ^ ((r2hi << SL1) & SL1_MASK);
+
+            s[a] = lo;
+            s[a + 1] = hi;
+            r1lo = r2lo;
+            r1hi = r2hi;
+            r2lo = lo;
+            r2hi = hi;
+        }
+
+        for (; i < N; i++) {
+            int a = 2 * i;
+            int b = 2 * (i + POS1 - N);
+
+            long alo = s[a], ahi = s[a + 1];
+            long lo = alo ^ (alo << SL2_BITS)
+                    ^ ((s[b] >>> SR1) & MSK_LO)
+                    ^ ((r1lo >>> SR2_BITS) | (r1hi << (64 - SR2_BITS)))
+                    ^ ((r2lo << SL1) & SL1_MASK);
+            long hi = ahi ^ ((ahi << SL2_BITS) | (alo >>> (64 - SL2_BITS)))
+                    ^ ((s[b + 1] >>> SR1) & MSK_HI)
+                    ^ (r1hi >>> SR2_BITS)
+                    ^ ((r2hi << SL1) & SL1_MASK);
+
+            s[a] = lo;
+            s[a + 1] = hi;
+            r1lo = r2lo;
+            r1hi = r2hi;
+            r2lo = lo;
+            r2hi = hi;
+        }
+
+        idx = 0;
+    }
+
+    // Returns the next 32-bit word. SFMT needs no tempering.
+    private int nextWord() {
+        if (idx >= N32) {
+            twist();
+        }
+
+        int i = idx++;
+        return (int) (sfmt[i >>> 1] >>> ((i & 0x1) << 5));
+    }
+
+    public int nextInt() {
+        return nextWord();
+    }
+
+    // Two consecutive words, the first one as the low half. When the index is
+    // even this is a single aligned read, matching the reference gen_rand64().
+    public long nextLong() {
+        if ((idx & 0x1) == 0 && idx < N32) {
+            long y = sfmt[idx >>> 1];
+            idx += 2;
+            return y;
+        }
+
+        int y = nextWord();
+        int z = nextWord();
+
+        return ((long) z << 32) | ((long) y & 0xFFFFFFFFL);
+    }
+
+    // Advances the generator by 2^128 words, as if nextInt() had been called
+    // that many times. Generators spaced this far apart never overlap in practice.
+    public void jump() {
+        SfmtJump.apply(sfmt, SfmtJump.powerOfTwo(JUMP_LOG2));
+    }
+
+    // Returns a copy that carries on from this generator's current position,
+    // then jumps this generator ahead so the two streams never overlap.
+    public SfmtTwister split() {
+        SfmtTwister child = (SfmtTwister) clone();
+        jump();
+        return child;
+    }
+
+    // Writes a checksummed state record at the buffer's position, in the buffer's byte order.
+    public void writeState(ByteBuffer buffer) {
+        if (buffer.remaining() < STATE_BYTES) {
+            throw new BufferOverflowException();
+        }
+
+        int start = buffer.position();
+
+        StateFormat.writeHeader(buffer, StateFormat.ENGINE_SFMT19937);
+        buffer.putInt(idx);
+        buffer.asLongBuffer().put(sfmt);
+        buffer.position(buffer.position() + 16 * N);
+        StateFormat.writeChecksum(buffer, start);
+    }
+
+    // Reads a record written by writeState(ByteBuffer), whatever byte order it
+    // was written in. Nothing changes unless the whole record checks out.
+    public void readState(ByteBuffer buffer) throws IOException {
+        ByteOrder order = buffer.order();
+        ByteOrder stored = StateFormat.readHeader(buffer, StateFormat.ENGINE_SFMT19937, STATE_BYTES);
+
+        try {
+            buffer.order(stored);
+
+            int index = buffer.getInt();
+
+            if (index < 0 || index > N32) {
+                throw new IOException("Corrupt SFMT19937 state record (idx: " + index + ")");
+            }
+
+            long[] state = new long[N * 2];
+            long any = 0;
+            buffer.asLongBuffer().get(state);
+
+            for (long word : state) {
+                any |= word;
+            }
+
+            if (any == 0) {
+                throw new IOException("Corrupt SFMT19937 state record (all zeros).");
+            }
+
+            buffer.position(buffer.position() + 16 * N + StateFormat.TRAILER_BYTES);
+            System.arraycopy(state, 0, sfmt, 0, state.length);
+            idx = index;
+        } finally {
+            buffer.order(order);
+        }
+    }
+
+    @Override
+    public int checkpointBytes() {
+        return STATE_BYTES;
+    }
+
+    @Override
+    public void writeCheckpoint(ByteBuffer buffer) {
+        writeState(buffer);
+    }
+
+    @Override
+    public void readCheckpoint(ByteBuffer buffer) throws IOException {
+        readState(buffer);
+    }
+}
@@ -0,0 +1,9 @@
+package dev.larrabyte.huff;
+
+// A RandomSource that can hand out independent substreams of itself, which is
+// what ConcurrentRandomSource needs to give every thread its own generator.
+public interface SplittableRandomSource extends RandomSource {
+    // Returns a generator that carries on from this one's current position,
+    // and moves this one on so the two never overlap.
+    SplittableRandomSource split();
+}
@@ -0,0 +1,103 @@
+package dev.larrabyte.huff;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.CRC32;
+
+// Framing shared by the ByteBuffer state formats. Each record is laid out as:
+//
+//   4 bytes  magic "HUFS"
+//   1 byte   format version
+//   1 byte   engine type
+//   1 byte   byte order of everything after the header (0 big, 1 little)
+//   1 byte   reserved, zero
+//   ...      engine payload, in the recorded byte order
+//   4 bytes  CRC32 of everything before it, in the recorded byte order
+//
+// Payloads are written in the buffer's own order so the bulk copies through
+// an IntBuffer or LongBuffer view stay straight memory copies.
+final class StateFormat {
+    static final int HEADER_BYTES = 8;
+    static final int TRAILER_BYTES = 4;
+
+    static final byte VERSION = 1;
+
+    static final byte ENGINE_MT19937 = 1;
+    static final byte ENGINE_SFMT19937 = 2;
+    static final byte ENGINE_MT19937_64 = 3;
+    static final byte ENGINE_XOSHIRO256SS = 4;
+    static final byte ENGINE_PCG64 = 5;
+    static final byte ENGINE_PHILOX4X32 = 6;
+    static final byte ENGINE_GENERATOR_BANK = 7;
+
+    private static final byte[] MAGIC = { 'H', 'U', 'F', 'S' };
+
+    private StateFormat() {}
+
+    static void writeHeader(ByteBuffer buffer, byte engine) {
+        buffer.put(MAGIC);
+        buffer.put(VERSION);
+        buffer.put(engine);
+        buffer.put(buffer.order() == ByteOrder.BIG_ENDIAN ? (byte) 0 : (byte) 1);
+        buffer.put((byte) 0);
+    }
+
+    // Checks the header at the buffer's position and the checksum of the
+    // length-byte record it starts, then returns the payload's byte order.
+    // The position is left just past the header.
+    static ByteOrder readHeader(ByteBuffer buffer, byte engine, int length) throws IOException {
+        int start = buffer.position();
+
+        if (buffer.remaining() < length) {
+            throw new IOException("Truncated state record: need " + length + " bytes, have " + buffer.remaining());
+        }
+
+        for (int x = 0; x < MAGIC.length; x++) {
+            if (buffer.get() != MAGIC[x]) {
+                throw new IOException("Not a state record (bad magic).");
+            }
+        }
+
+        byte version = buffer.get();
+        byte stored = buffer.get();
+        byte order = buffer.get();
+        buffer.get();
+
+        if (version != VERSION) {
+            throw new IOException("Unsupported state format version: " + version);
+        }
+
+        if (stored != engine) {
+            throw new IOException("State record is for engine " + stored + ", expected " + engine);
+        }
+
+        if (order != 0 && order != 1) {
+            throw new IOException("Bad byte order flag in state record: " + order);
+        }
+
+        ByteOrder payloadOrder = order == 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+        int end = start + length - TRAILER_BYTES;
+        int expected = buffer.duplicate().order(payloadOrder).getInt(end);
+
+        if (checksum(buffer, start, end) != expected) {
+            throw new IOException("State record checksum mismatch.");
+        }
+
+        return payloadOrder;
+    }
+
+    // Appends the CRC32 of everything from start up to the current position.
+    static void writeChecksum(ByteBuffer buffer, int start) {
+        buffer.putInt(checksum(buffer, start, buffer.position()));
+    }
+
+    private static int checksum(ByteBuffer buffer, int from, int to) {
+        ByteBuffer region = buffer.duplicate();
+        region.limit(to).position(from);
+
+        CRC32 crc = new CRC32();
+        crc.update(region);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,32 @@
+package dev.larrabyte.huff;
+
+// The MT19937 state refill and bulk tempering loops, kept apart from
+// MersenneTwister so a multi-release jar can swap in a vectorised copy
+// (src/main/java17) on Java 17+. This is the scalar version that Java 8, and
+// so Forge 1.8.9, always gets; the loops themselves are in TwistScalar, which
+// both versions share. Every implementation must give bit-identical output.
+final class TwistKernel {
+    private TwistKernel() {}
+
+    // Which implementation this is, for benchmark reports.
+    static String describe() {
+        return "scalar";
+    }
+
+    // Regenerates all N words of state in one pass.
+    static void twist(int[] mt) {
+        TwistScalar.twist(mt);
+    }
+
+    // Regenerates words [from, to) of the next generation, in the same order
+    // as twist(). Words [0, from) must already have been regenerated, since
+    // the second half of the recurrence reads them.
+    static void twist(int[] mt, int from, int to) {
+        TwistScalar.twist(mt, from, to);
+    }
+
+    // Tempers len words of mt starting at from into dst starting at off.
+    static void temper(int[] mt, int from, int[] dst, int off, int len) {
+        TwistScalar.temper(mt, from, dst, off, len);
+    }
+}
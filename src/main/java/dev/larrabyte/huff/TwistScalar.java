@@ -0,0 +1,64 @@
+package dev.larrabyte.huff;
+
+// The scalar MT19937 refill and tempering loops. TwistKernel is replaced
+// wholesale on Java 17+, so the loops both versions share live here, in the
+// base of the multi-release jar: the Java 8 kernel is just these, and the
+// Java 17 one uses them for its fallback and for the words left over after
+// the last full vector.
+final class TwistScalar {
+    private static final int N = 624;
+    private static final int M = 397;
+    private static final int MATRIX_A = 0x9908B0DF;
+    private static final int UPPER_MASK = 0x80000000;
+    private static final int LOWER_MASK = 0x7FFFFFFF;
+    private static final int TEMPERING_MASK_B = 0x9D2C5680;
+    private static final int TEMPERING_MASK_C = 0xEFC60000;
+
+    private TwistScalar() {}
+
+    // Regenerates all N words of state in one pass. The mag01[] lookup is
+    // replaced by an arithmetic mask so each step is a straight line of
+    // shifts and xors that the JIT can unroll without any data-dependent loads.
+    static void twist(int[] mt) {
+        twist(mt, 0, N);
+    }
+
+    // Regenerates words [from, to) of the next generation, in the same order
+    // as twist(). Words [0, from) must already have been regenerated, since
+    // the second half of the recurrence reads them.
+    static void twist(int[] mt, int from, int to) {
+        int kk = from;
+        int y;
+
+        for (int end = Math.min(to, N - M); kk < end; kk++) {
+            y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
+            mt[kk] = mt[kk + M] ^ (y >>> 1) ^ (-(y & 0x1) & MATRIX_A);
+        }
+
+        for (int end = Math.min(to, N - 1); kk < end; kk++) {
+            y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
+            mt[kk] = mt[kk + (M - N)] ^ (y >>> 1) ^ (-(y & 0x1) & MATRIX_A);
+        }
+
+        if (kk == N - 1 && to == N) {
+            y = (mt[N - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
+            mt[N - 1] = mt[M - 1] ^ (y >>> 1) ^ (-(y & 0x1) & MATRIX_A);
+        }
+    }
+
+    // Tempers len words of mt starting at from into dst starting at off.
+    static void temper(int[] mt, int from, int[] dst, int off, int len) {
+        for (int k = 0; k < len; k++) {
+            dst[off + k] = temper(mt[from + k]);
+        }
+    }
+
+    static int temper(int y) {
+        y ^= y >>> 11;
+        y ^= (y << 7) & TEMPERING_MASK_B;
+        y ^= (y << 15) & TEMPERING_MASK_C;
+        y ^= (y >>> 18);
+
+        return y;
+    }
+}
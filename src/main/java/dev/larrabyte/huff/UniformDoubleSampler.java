@@ -0,0 +1,24 @@
+package dev.larrabyte.huff;
+
+// Draws doubles from [a, b) for a fixed range. The bounds are checked once,
+// and each sample is bit-identical to nextDouble(a, b).
+public final class UniformDoubleSampler {
+    private final MersenneTwister rng;
+    private final double a;
+    private final double width;
+
+    public UniformDoubleSampler(MersenneTwister rng, double a, double b) {
+        if (b <= a) {
+            String reason = String.format("b must be greater than a! (a: %f, b: %f)", a, b);
+            throw new IllegalArgumentException(reason);
+        }
+
+        this.rng = rng;
+        this.a = a;
+        this.width = b - a;
+    }
+
+    public double sample() {
+        return a + rng.nextDouble() * width;
+    }
+}
@@ -0,0 +1,47 @@
+package dev.larrabyte.huff;
+
+// Draws longs uniformly from [a, b) for a fixed range. The range check and the
+// rejection threshold are worked out once here, so each sample is a multiply
+// and a compare. The output matches nextLong(a, b) with BoundedMethod.LEMIRE.
+public final class UniformLongSampler {
+    private final MersenneTwister rng;
+    private final long a;
+    private final long b;
+    private final long n;
+    private final long threshold;
+
+    public UniformLongSampler(MersenneTwister rng, long a, long b) {
+        if (b <= a) {
+            String reason = String.format("b must be greater than a! (a: %d, b: %d)", a, b);
+            throw new IllegalArgumentException(reason);
+        }
+
+        this.rng = rng;
+        this.a = a;
+        this.b = b;
+        this.n = b - a;
+
+        // A range wider than Long.MAX_VALUE overflows n; those ranges use plain rejection.
+        this.threshold = n > 0 ? Long.remainderUnsigned(-n, n) : 0;
+    }
+
+    public long sample() {
+        if (n <= 0) {
+            long x;
+
+            do {
+                x = rng.nextLong();
+            } while (x < a || x >= b);
+
+            return x;
+        }
+
+        long x = rng.nextLong();
+
+        while (Long.compareUnsigned(x * n, threshold) < 0) {
+            x = rng.nextLong();
+        }
+
+        return a + UnsignedMath.multiplyHigh(x, n);
+    }
+}
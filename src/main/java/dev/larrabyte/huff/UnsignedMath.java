@@ -0,0 +1,18 @@
+package dev.larrabyte.huff;
+
+// 128-bit helpers the engines need and Java 8's Math lacks.
+final class UnsignedMath {
+    private UnsignedMath() {}
+
+    // High 64 bits of the unsigned 128-bit product x * y (Math has no such method before Java 18).
+    static long multiplyHigh(long x, long y) {
+        long x0 = x & 0xFFFFFFFFL, x1 = x >>> 32;
+        long y0 = y & 0xFFFFFFFFL, y1 = y >>> 32;
+
+        long p01 = x0 * y1;
+        long p10 = x1 * y0;
+        long carry = ((x0 * y0) >>> 32) + (p01 & 0xFFFFFFFFL) + (p10 & 0xFFFFFFFFL);
+
+        return x1 * y1 + (p01 >>> 32) + (p10 >>> 32) + (carry >>> 32);
+    }
+}
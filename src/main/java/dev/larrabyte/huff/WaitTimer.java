@@ -1,6 +1,11 @@
 package dev.larrabyte.huff;
 
-public final class WaitTimer {
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+public final class WaitTimer implements Checkpointable {
+	private static final long serialVersionUID = -2306412837264381939L;
+
 	// Time storage.
 	private long time;
 
@@ -20,4 +25,26 @@ public final class WaitTimer {
 	public boolean hasTimeElapsed(long time) {
 		return getTime() >= time;
 	}
+
+	// nanoTime() has no meaning across restarts, so the elapsed time is stored instead.
+	@Override
+	public int checkpointBytes() {
+		return 8;
+	}
+
+	@Override
+	public void writeCheckpoint(ByteBuffer buffer) {
+		buffer.putLong(getTime());
+	}
+
+	@Override
+	public void readCheckpoint(ByteBuffer buffer) throws IOException {
+		long elapsed = buffer.getLong();
+
+		if (elapsed < 0) {
+			throw new IOException("Negative elapsed time in checkpoint: " + elapsed);
+		}
+
+		this.time = System.nanoTime() - elapsed;
+	}
 }
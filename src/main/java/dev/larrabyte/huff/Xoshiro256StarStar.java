@@ -0,0 +1,227 @@
+package dev.larrabyte.huff;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// xoshiro256** (Blackman and Vigna, 2018).
+//
+// The whole state is four longs, so a generator fits in one cache line next
+// to its object header, and a draw is a handful of shifts, rotates and xors
+// with no table to regenerate. The period is 2^256 - 1 and jump() moves 2^128
+// draws ahead, which is what split() uses to hand out substreams.
+//
+// Like MersenneTwister, instances are not thread-safe. Wrap one in a
+// ConcurrentRandomSource to share it between threads.
+public class Xoshiro256StarStar implements SplittableRandomSource, Checkpointable, Cloneable {
+    private static final long serialVersionUID = 7421937040126183651L;
+
+    // Bytes written by writeState(ByteBuffer): header, four longs, checksum.
+    public static final int STATE_BYTES = StateFormat.HEADER_BYTES + 32 + StateFormat.TRAILER_BYTES;
+
+    // Polynomials for jump() (2^128 draws) and longJump() (2^192 draws), from the reference code.
+    private static final long[] JUMP = {
+        0x180EC6D33CFD0ABAL, 0xD5A61266F0C9392CL, 0xA9582618E03FC9AAL, 0x39ABDC4529B1661CL
+    };
+
+    private static final long[] LONG_JUMP = {
+        0x76E15D3EFEFDCBBFL, 0xC5004E441C522FB3L, 0x77710069854EE241L, 0x39109BB02ACBE635L
+    };
+
+    private long s0, s1, s2, s3;
+
+    // Constructor (uses time as the default seed).
+    public Xoshiro256StarStar() {
+        this(System.currentTimeMillis());
+    }
+
+    // Constructor using a given seed (all 64 bits are used).
+    public Xoshiro256StarStar(long seed) {
+        setSeed(seed);
+    }
+
+    // Constructor taking the raw state. It must not be all zeros.
+    public Xoshiro256StarStar(long s0, long s1, long s2, long s3) {
+        if ((s0 | s1 | s2 | s3) == 0) {
+            throw new IllegalArgumentException("xoshiro256** state must not be all zeros.");
+        }
+
+        this.s0 = s0;
+        this.s1 = s1;
+        this.s2 = s2;
+        this.s3 = s3;
+    }
+
+    public Object clone() {
+        try {
+            return super.clone();
+        } catch (CloneNotSupportedException e) {
+            // This should never happen!
+            throw new InternalError();
+        }
+    }
+
+    public boolean stateEquals(Object o) {
+        if (o == this) return true;
+        if (o == null || !(o instanceof Xoshiro256StarStar)) return false;
+
+        Xoshiro256StarStar other = (Xoshiro256StarStar) o;
+        return s0 == other.s0 && s1 == other.s1 && s2 == other.s2 && s3 == other.s3;
+    }
+
+    // Fills the state from SplitMix64, as the authors recommend. SplitMix64
+    // never outputs four zeros in a row, so every seed gives a valid state.
+    public void setSeed(long seed) {
+        long x = seed;
+        s0 = mix(x += 0x9E3779B97F4A7C15L);
+        s1 = mix(x += 0x9E3779B97F4A7C15L);
+        s2 = mix(x += 0x9E3779B97F4A7C15L);
+        s3 = mix(x += 0x9E3779B97F4A7C15L);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public long nextLong() {
+        long result = Long.rotateLeft(s1 * 5, 7) * 9;
+        long t = s1 << 17;
+
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Long.rotateLeft(s3, 45);
+
+        return result;
+    }
+
+    // The upper half of a 64-bit word (the low bits are the weaker ones).
+    public int nextInt() {
+        return (int) (nextLong() >>> 32);
+    }
+
+    // Fills the array eight bytes per word, most significant byte first.
+    public void nextBytes(byte[] bytes) {
+        int x = 0;
+
+        for (int limit = bytes.length & ~0x7; x < limit; x += 8) {
+            long y = nextLong();
+
+            for (int b = 0; b < 8; b++, y <<= 8) {
+                bytes[x + b] = (byte) (y >>> 56);
+            }
+        }
+
+        if (x < bytes.length) {
+            long y = nextLong();
+
+            for (; x < bytes.length; x++, y <<= 8) {
+                bytes[x] = (byte) (y >>> 56);
+            }
+        }
+    }
+
+    // Advances the generator 2^128 draws.
+    public void jump() {
+        jump(JUMP);
+    }
+
+    // Advances the generator 2^192 draws.
+    public void longJump() {
+        jump(LONG_JUMP);
+    }
+
+    private void jump(long[] polynomial) {
+        long t0 = 0, t1 = 0, t2 = 0, t3 = 0;
+
+        for (long word : polynomial) {
+            for (int b = 0; b < 64; b++) {
+                if ((word & (1L << b)) != 0) {
+                    t0 ^= s0;
+                    t1 ^= s1;
+                    t2 ^= s2;
+                    t3 ^= s3;
+                }
+
+                nextLong();
+            }
+        }
+
+        s0 = t0;
+        s1 = t1;
+        s2 = t2;
+        s3 = t3;
+    }
+
+    // Returns a copy that carries on from this generator's current position,
+    // then jumps this generator ahead so the two streams never overlap.
+    public Xoshiro256StarStar split() {
+        Xoshiro256StarStar child = (Xoshiro256StarStar) clone();
+        jump();
+        return child;
+    }
+
+    // Writes a checksummed state record at the buffer's position, in the buffer's byte order.
+    public void writeState(ByteBuffer buffer) {
+        if (buffer.remaining() < STATE_BYTES) {
+            throw new BufferOverflowException();
+        }
+
+        int start = buffer.position();
+
+        StateFormat.writeHeader(buffer, StateFormat.ENGINE_XOSHIRO256SS);
+        buffer.putLong(s0);
+        buffer.putLong(s1);
+        buffer.putLong(s2);
+        buffer.putLong(s3);
+        StateFormat.writeChecksum(buffer, start);
+    }
+
+    // Reads a record written by writeState(ByteBuffer), whatever byte order it
+    // was written in. Nothing changes unless the whole record checks out.
+    public void readState(ByteBuffer buffer) throws IOException {
+        ByteOrder order = buffer.order();
+        ByteOrder stored = StateFormat.readHeader(buffer, StateFormat.ENGINE_XOSHIRO256SS, STATE_BYTES);
+
+        try {
+            buffer.order(stored);
+
+            long a = buffer.getLong();
+            long b = buffer.getLong();
+            long c = buffer.getLong();
+            long d = buffer.getLong();
+
+            if ((a | b | c | d) == 0) {
+                throw new IOException("Corrupt xoshiro256** state record (all zeros).");
+            }
+
+            buffer.position(buffer.position() + StateFormat.TRAILER_BYTES);
+            s0 = a;
+            s1 = b;
+            s2 = c;
+            s3 = d;
+        } finally {
+            buffer.order(order);
+        }
+    }
+
+    @Override
+    public int checkpointBytes() {
+        return STATE_BYTES;
+    }
+
+    @Override
+    public void writeCheckpoint(ByteBuffer buffer) {
+        writeState(buffer);
+    }
+
+    @Override
+    public void readCheckpoint(ByteBuffer buffer) throws IOException {
+        readState(buffer);
+    }
+}
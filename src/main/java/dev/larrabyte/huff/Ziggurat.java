@@ -0,0 +1,150 @@
+package dev.larrabyte.huff;
+
+// Normal and exponential samplers using the Ziggurat method of Marsaglia and
+// Tsang, "The Ziggurat Method for Generating Random Variables" (2000).
+//
+// The density is covered by equal-area horizontal layers: 128 for the normal,
+// 256 for the exponential. One 32-bit word picks a layer with its low bits and
+// a point inside it with the whole word. About 98.8% (normal) and 98.9%
+// (exponential) of draws land inside the largest rectangle contained in the
+// layer and cost nothing more than a comparison and a multiply. The rest fall
+// back to an exact test against the density, or to the tail for the base layer.
+strictfp final class Ziggurat {
+    // Rightmost layer edge and the common layer area, normal distribution.
+    private static final double NORMAL_R = 3.442619855899;
+    private static final double NORMAL_V = 9.91256303526217e-3;
+
+    // Same, exponential distribution.
+    private static final double EXP_R = 7.697117470131487;
+    private static final double EXP_V = 3.949659822581572e-3;
+
+    // k[i]: acceptance bound for a raw word in layer i, w[i]: scale from word
+    // to x, f[i]: density at the layer's right edge.
+    private static final int[] kn = new int[128];
+    private static final double[] wn = new double[128];
+    private static final double[] fn = new double[128];
+
+    // Exponential words are unsigned, so the bounds are held as longs.
+    private static final long[] ke = new long[256];
+    private static final double[] we = new double[256];
+    private static final double[] fe = new double[256];
+
+    static {
+        final double m1 = 2147483648.0;
+        final double m2 = 4294967296.0;
+
+        double dn = NORMAL_R, tn = dn;
+        double q = NORMAL_V / StrictMath.exp(-0.5 * dn * dn);
+
+        kn[0] = (int) ((dn / q) * m1);
+        kn[1] = 0;
+        wn[0] = q / m1;
+        wn[127] = dn / m1;
+        fn[0] = 1.0;
+        fn[127] = StrictMath.exp(-0.5 * dn * dn);
+
+        for (int i = 126; i >= 1; i--) {
+            dn = StrictMath.sqrt(-2.0 * StrictMath.log(NORMAL_V / dn + StrictMath.exp(-0.5 * dn * dn)));
+            kn[i + 1] = (int) ((dn / tn) * m1);
+            tn = dn;
+            fn[i] = StrictMath.exp(-0.5 * dn * dn);
+            wn[i] = dn / m1;
+        }
+
+        double de = EXP_R, te = de;
+        q = EXP_V / StrictMath.exp(-de);
+
+        ke[0] = (long) ((de / q) * m2);
+        ke[1] = 0;
+        we[0] = q / m2;
+        we[255] = de / m2;
+        fe[0] = 1.0;
+        fe[255] = StrictMath.exp(-de);
+
+        for (int i = 254; i >= 1; i--) {
+            de = -StrictMath.log(EXP_V / de + StrictMath.exp(-de));
+            ke[i + 1] = (long) ((de / te) * m2);
+            te = de;
+            fe[i] = StrictMath.exp(-de);
+            we[i] = de / m2;
+        }
+    }
+
+    private Ziggurat() {}
+
+    // Returns a standard normal deviate.
+    static double normal(RandomSource rng) {
+        int hz = rng.nextInt();
+        int iz = hz & 127;
+
+        if (Math.abs(hz) < kn[iz]) {
+            return hz * wn[iz];
+        }
+
+        return normalSlow(rng, hz, iz);
+    }
+
+    private static double normalSlow(RandomSource rng, int hz, int iz) {
+        while (true) {
+            double x = hz * wn[iz];
+
+            // Base layer: sample the tail beyond NORMAL_R directly.
+            if (iz == 0) {
+                double y;
+
+                do {
+                    x = -StrictMath.log(1.0 - rng.nextDouble()) / NORMAL_R;
+                    y = -StrictMath.log(1.0 - rng.nextDouble());
+                } while (y + y < x * x);
+
+                return hz > 0 ? NORMAL_R + x : -NORMAL_R - x;
+            }
+
+            // Wedge between the rectangle and the curve.
+            if (fn[iz] + rng.nextDouble() * (fn[iz - 1] - fn[iz]) < StrictMath.exp(-0.5 * x * x)) {
+                return x;
+            }
+
+            hz = rng.nextInt();
+            iz = hz & 127;
+
+            if (Math.abs(hz) < kn[iz]) {
+                return hz * wn[iz];
+            }
+        }
+    }
+
+    // Returns an exponential deviate with rate 1.
+    static double exponential(RandomSource rng) {
+        long jz = rng.nextInt() & 0xFFFFFFFFL;
+        int iz = (int) jz & 255;
+
+        if (jz < ke[iz]) {
+            return jz * we[iz];
+        }
+
+        return exponentialSlow(rng, jz, iz);
+    }
+
+    private static double exponentialSlow(RandomSource rng, long jz, int iz) {
+        while (true) {
+            // Base layer: the tail is memoryless, so shift a fresh deviate past EXP_R.
+            if (iz == 0) {
+                return EXP_R - StrictMath.log(1.0 - rng.nextDouble());
+            }
+
+            double x = jz * we[iz];
+
+            if (fe[iz] + rng.nextDouble() * (fe[iz - 1] - fe[iz]) < StrictMath.exp(-x)) {
+                return x;
+            }
+
+            jz = rng.nextInt() & 0xFFFFFFFFL;
+            iz = (int) jz & 255;
+
+            if (jz < ke[iz]) {
+                return jz * we[iz];
+            }
+        }
+    }
+}
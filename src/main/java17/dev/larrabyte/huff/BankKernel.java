@@ -0,0 +1,143 @@
+package dev.larrabyte.huff;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+// Java 17+ BankKernel, packed under META-INF/versions/17 of the mod jar.
+//
+// Streams never interact, so a lane-wide chunk of streams is stepped straight
+// out of the direct buffer and stored back, with no copy onto the heap. The
+// same switches as TwistKernel apply: the incubator module must have been
+// added with --add-modules jdk.incubator.vector, and -Dhuff.vectorBits pins
+// the width, with 0 forcing the scalar path.
+final class BankKernel {
+    private static final int BLOCK = 256;
+
+    private static final boolean VECTORIZED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+            && Integer.getInteger("huff.vectorBits", -1) != 0;
+
+    private BankKernel() {}
+
+    // Which implementation this is, for benchmark reports.
+    static String describe() {
+        return VECTORIZED ? "vector " + Vectorized.SPECIES.vectorBitSize() + "-bit" : "scalar";
+    }
+
+    // Scratch for step(): four lanes of up to BLOCK streams, which the bank
+    // allocates once and hands back on every call.
+    static int[][] newScratch(int streams) {
+        return new int[4][Math.min(BLOCK, streams)];
+    }
+
+    // Steps every one of the streams once, writing stream i's output to out[i].
+    static void step(ByteBuffer state, int streams, int[] out, int[][] scratch) {
+        int from = VECTORIZED ? Vectorized.step(state, streams, out) : 0;
+
+        if (from < streams) {
+            stepScalar(state, from, streams, out, scratch);
+        }
+    }
+
+    // Steps streams [from, streams) a block at a time on the heap.
+    private static void stepScalar(ByteBuffer state, int from, int streams, int[] out, int[][] scratch) {
+        IntBuffer lanes = state.asIntBuffer();
+        int[] s0 = scratch[0], s1 = scratch[1], s2 = scratch[2], s3 = scratch[3];
+        final int block = s0.length;
+
+        for (int base = from; base < streams; base += block) {
+            int len = Math.min(block, streams - base);
+
+            lanes.position(base);
+            lanes.get(s0, 0, len);
+            lanes.position(base + streams);
+            lanes.get(s1, 0, len);
+            lanes.position(base + 2 * streams);
+            lanes.get(s2, 0, len);
+            lanes.position(base + 3 * streams);
+            lanes.get(s3, 0, len);
+
+            for (int i = 0; i < len; i++) {
+                int a = s0[i], b = s1[i], c = s2[i], d = s3[i];
+                out[base + i] = Integer.rotateLeft(b * 5, 7) * 9;
+
+                int t = b << 9;
+                c ^= a;
+                d ^= b;
+                b ^= c;
+                a ^= d;
+                c ^= t;
+
+                s0[i] = a;
+                s1[i] = b;
+                s2[i] = c;
+                s3[i] = Integer.rotateLeft(d, 11);
+            }
+
+            lanes.position(base);
+            lanes.put(s0, 0, len);
+            lanes.position(base + streams);
+            lanes.put(s1, 0, len);
+            lanes.position(base + 2 * streams);
+            lanes.put(s2, 0, len);
+            lanes.position(base + 3 * streams);
+            lanes.put(s3, 0, len);
+        }
+    }
+
+    // Only loaded once VECTORIZED is known to be true, so the incubator
+    // classes are never resolved on a JVM that doesn't have them.
+    private static final class Vectorized {
+        static final VectorSpecies<Integer> SPECIES = species();
+
+        private static VectorSpecies<Integer> species() {
+            int preferred = IntVector.SPECIES_PREFERRED.vectorBitSize();
+            int bits = Integer.getInteger("huff.vectorBits", preferred);
+
+            if (bits != 64 && bits != 128 && bits != 256 && bits != 512) {
+                throw new IllegalArgumentException("huff.vectorBits must be 0, 64, 128, 256 or 512, got: " + bits);
+            }
+
+            return VectorSpecies.of(int.class, VectorShape.forBitSize(Math.min(bits, preferred)));
+        }
+
+        // Steps as many whole lane-wide chunks as fit and returns the first
+        // stream left for the scalar loop.
+        static int step(ByteBuffer state, int streams, int[] out) {
+            final int lanes = SPECIES.length();
+            final ByteOrder order = state.order();
+            final int stride = 4 * streams;
+            int i = 0;
+
+            for (; i + lanes <= streams; i += lanes) {
+                int p = 4 * i;
+                IntVector a = IntVector.fromByteBuffer(SPECIES, state, p, order);
+                IntVector b = IntVector.fromByteBuffer(SPECIES, state, p + stride, order);
+                IntVector c = IntVector.fromByteBuffer(SPECIES, state, p + 2 * stride, order);
+                IntVector d = IntVector.fromByteBuffer(SPECIES, state, p + 3 * stride, order);
+
+                b.mul(5).lanewise(VectorOperators.ROL, 7).mul(9).intoArray(out, i);
+
+                IntVector t = b.lanewise(VectorOperators.LSHL, 9);
+                c = c.lanewise(VectorOperators.XOR, a);
+                d = d.lanewise(VectorOperators.XOR, b);
+                b = b.lanewise(VectorOperators.XOR, c);
+                a = a.lanewise(VectorOperators.XOR, d);
+                c = c.lanewise(VectorOperators.XOR, t);
+                d = d.lanewise(VectorOperators.ROL, 11);
+
+                a.intoByteBuffer(state, p, order);
+                b.intoByteBuffer(state, p + stride, order);
+                c.intoByteBuffer(state, p + 2 * stride, order);
+                d.intoByteBuffer(state, p + 3 * stride, order);
+            }
+
+            return i;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package dev.larrabyte.huff;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+// Java 17+ TwistKernel, packed under META-INF/versions/17 of the mod jar.
+//
+// Both loops of the refill are data-parallel. In the first, word kk reads
+// kk + 1 and kk + M, which a lane-wide chunk loads before it stores anything.
+// In the second, word kk reads kk + M - N, which is at least N - M = 227 words
+// behind and so already written by an earlier chunk. Only the last word wraps
+// around to mt[0] and is done on its own. Tempering is per word, so it is a
+// plain lane-wise map.
+//
+// The Vector API is still an incubator module, so it is only used when the JVM
+// was started with --add-modules jdk.incubator.vector. Otherwise this falls
+// back to TwistScalar, the same loops the Java 8 class runs. The width can be
+// pinned with -Dhuff.vectorBits=0|64|128|256|512, where 0 forces the scalar
+// path and anything wider than the hardware's preferred shape is capped to it.
+final class TwistKernel {
+    private static final int N = 624;
+    private static final int M = 397;
+    private static final int MATRIX_A = 0x9908B0DF;
+    private static final int UPPER_MASK = 0x80000000;
+    private static final int LOWER_MASK = 0x7FFFFFFF;
+    private static final int TEMPERING_MASK_B = 0x9D2C5680;
+    private static final int TEMPERING_MASK_C = 0xEFC60000;
+
+    private static final boolean VECTORIZED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+            && Integer.getInteger("huff.vectorBits", -1) != 0;
+
+    private TwistKernel() {}
+
+    // Which implementation this is, for benchmark reports.
+    static String describe() {
+        return VECTORIZED ? "vector " + Vectorized.SPECIES.vectorBitSize() + "-bit" : "scalar";
+    }
+
+    static void twist(int[] mt) {
+        if (VECTORIZED) {
+            Vectorized.twist(mt);
+        } else {
+            TwistScalar.twist(mt);
+        }
+    }
+
+    // Regenerates words [from, to) of the next generation, in the same order
+    // as twist(). Words [0, from) must already have been regenerated, since
+    // the second half of the recurrence reads them. The incremental mode asks
+    // for a few words at a time, too few to be worth vectorising.
+    static void twist(int[] mt, int from, int to) {
+        TwistScalar.twist(mt, from, to);
+    }
+
+    // Tempers len words of mt starting at from into dst starting at off.
+    static void temper(int[] mt, int from, int[] dst, int off, int len) {
+        if (VECTORIZED) {
+            Vectorized.temper(mt, from, dst, off, len);
+        } else {
+            TwistScalar.temper(mt, from, dst, off, len);
+        }
+    }
+
+    // Only loaded once VECTORIZED is known to be true, so the incubator
+    // classes are never resolved on a JVM that doesn't have them.
+    private static final class Vectorized {
+        static final VectorSpecies<Integer> SPECIES = species();
+
+        private static VectorSpecies<Integer> species() {
+            int preferred = IntVector.SPECIES_PREFERRED.vectorBitSize();
+            int bits = Integer.getInteger("huff.vectorBits", preferred);
+
+            if (bits != 64 && bits != 128 && bits != 256 && bits != 512) {
+                throw new IllegalArgumentException("huff.vectorBits must be 0, 64, 128, 256 or 512, got: " + bits);
+            }
+
+            return VectorSpecies.of(int.class, VectorShape.forBitSize(Math.min(bits, preferred)));
+        }
+
+        // One lane-wide chunk of the recurrence: mt[kk..] = mt[src..] ^ twist(mt[kk..], mt[kk + 1..]).
+        private static void step(int[] mt, int kk, int src) {
+            IntVector cur = IntVector.fromArray(SPECIES, mt, kk);
+            IntVector next = IntVector.fromArray(SPECIES, mt, kk + 1);
+            IntVector y = cur.and(UPPER_MASK).or(next.and(LOWER_MASK));
+
+            // -(y & 1) & MATRIX_A, as an arithmetic shift of the low bit.
+            IntVector mag = y.lanewise(VectorOperators.LSHL, 31)
+                    .lanewise(VectorOperators.ASHR, 31)
+                    .and(MATRIX_A);
+
+            IntVector.fromArray(SPECIES, mt, src)
+                    .lanewise(VectorOperators.XOR, y.lanewise(VectorOperators.LSHR, 1))
+                    .lanewise(VectorOperators.XOR, mag)
+                    .intoArray(mt, kk);
+        }
+
+        static void twist(int[] mt) {
+            final int lanes = SPECIES.length();
+            int kk = 0;
+
+            for (; kk + lanes <= N - M; kk += lanes) {
+                step(mt, kk, kk + M);
+            }
+
+            // The words short of a full vector in each half, and the last
+            // word, which wraps around to mt[0].
+            TwistScalar.twist(mt, kk, N - M);
+            kk = N - M;
+
+            for (; kk + lanes <= N - 1; kk += lanes) {
+                step(mt, kk, kk + (M - N));
+            }
+
+            TwistScalar.twist(mt, kk, N);
+        }
+
+        static void temper(int[] mt, int from, int[] dst, int off, int len) {
+            final int lanes = SPECIES.length();
+            int k = 0;
+
+            for (; k + lanes <= len; k += lanes) {
+                IntVector y = IntVector.fromArray(SPECIES, mt, from + k);
+                y = y.lanewise(VectorOperators.XOR, y.lanewise(VectorOperators.LSHR, 11));
+                y = y.lanewise(VectorOperators.XOR, y.lanewise(VectorOperators.LSHL, 7).and(TEMPERING_MASK_B));
+                y = y.lanewise(VectorOperators.XOR, y.lanewise(VectorOperators.LSHL, 15).and(TEMPERING_MASK_C));
+                y = y.lanewise(VectorOperators.XOR, y.lanewise(VectorOperators.LSHR, 18));
+                y.intoArray(dst, off + k);
+            }
+
+            for (; k < len; k++) {
+                dst[off + k] = TwistScalar.temper(mt[from + k]);
+            }
+        }
+    }
+}
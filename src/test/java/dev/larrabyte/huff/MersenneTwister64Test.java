@@ -0,0 +1,108 @@
+package dev.larrabyte.huff;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+// Known answers from mt19937-64.out.txt, the output of the reference
+// mt19937-64.c seeded with init_by_array64({0x12345, 0x23456, 0x34567, 0x45678}).
+public class MersenneTwister64Test {
+    private static final String REFERENCE = "mt19937-64.out.txt";
+    private static final long[] KEY = { 0x12345L, 0x23456L, 0x34567L, 0x45678L };
+
+    @Test
+    public void genrand64Int64() throws IOException {
+        List<String> expected = ReferenceOutput.section(REFERENCE, "1000 outputs of genrand64_int64()");
+        MersenneTwister64 rng = new MersenneTwister64(KEY);
+
+        assertEquals(1000, expected.size());
+
+        for (int x = 0; x < expected.size(); x++) {
+            assertEquals("word " + x, expected.get(x), Long.toUnsignedString(rng.nextLong()));
+        }
+    }
+
+    // The reference prints these to eight decimal places.
+    @Test
+    public void genrand64Real2() throws IOException {
+        List<String> expected = ReferenceOutput.section(REFERENCE, "1000 outputs of genrand64_real2()");
+        MersenneTwister64 rng = new MersenneTwister64(KEY);
+
+        for (int x = 0; x < 1000; x++) {
+            rng.nextLong();
+        }
+
+        assertEquals(1000, expected.size());
+
+        for (int x = 0; x < expected.size(); x++) {
+            assertEquals("double " + x, Double.parseDouble(expected.get(x)), rng.nextDouble(), 0.5e-8);
+        }
+    }
+
+    @Test
+    public void reseedMatchesFreshGenerator() throws IOException {
+        List<String> expected = ReferenceOutput.section(REFERENCE, "1000 outputs of genrand64_int64()");
+        MersenneTwister64 rng = new MersenneTwister64(4357);
+        rng.nextLong();
+        rng.setSeed(KEY);
+
+        for (int x = 0; x < expected.size(); x++) {
+            assertEquals("word " + x, expected.get(x), Long.toUnsignedString(rng.nextLong()));
+        }
+    }
+
+    // Far enough past the degree of the modulus that the reduction is used.
+    @Test
+    public void jumpMatchesStepping() {
+        Random random = new Random(19937);
+        long[] state = new long[312];
+
+        for (int x = 0; x < state.length; x++) {
+            state[x] = random.nextLong();
+        }
+
+        long[] window = state.clone();
+        long[] expected = new long[312];
+        int p = 0;
+
+        for (int x = 0; x < 30000; x++) {
+            p = MersenneJump64.step(window, p);
+        }
+
+        for (int i = 0; i < 312; i++) {
+            expected[i] = window[(p + i) % 312];
+        }
+
+        MersenneJump64.apply(state, MersenneJump64.power(30000));
+        assertArrayEquals(expected, state);
+    }
+
+    @Test
+    public void checkpointRoundTrip() throws IOException {
+        for (ByteOrder order : new ByteOrder[] { ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN }) {
+            MersenneTwister64 rng = new MersenneTwister64(KEY);
+            for (int x = 0; x < 1001; x++) {
+                rng.nextLong();
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(rng.checkpointBytes()).order(order);
+            rng.writeCheckpoint(buffer);
+            buffer.flip();
+
+            MersenneTwister64 copy = new MersenneTwister64(1);
+            copy.readCheckpoint(buffer);
+
+            assertTrue(rng.stateEquals(copy));
+            assertEquals(0, buffer.remaining());
+            assertEquals(rng.nextLong(), copy.nextLong());
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package dev.larrabyte.huff;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+
+import org.junit.Test;
+
+// Known answers from mt19937ar.out.txt, the output of the reference
+// mt19937ar.c seeded with init_by_array({0x123, 0x234, 0x345, 0x456}), and
+// checks of the jump-ahead arithmetic against plain stepping.
+public class MersenneTwisterTest {
+    private static final String REFERENCE = "mt19937ar.out.txt";
+    private static final String LEGACY = "mt19937-legacy.ser";
+    private static final int[] KEY = { 0x123, 0x234, 0x345, 0x456 };
+
+    private static void assertSameOutput(MersenneTwister expected, MersenneTwister actual) {
+        for (int x = 0; x < 2000; x++) {
+            assertEquals("word " + x, expected.nextInt(), actual.nextInt());
+        }
+    }
+
+    // Draws a mix of single words, longs and bulk runs of up to 40 words,
+    // so incremental refills land in the middle of each kind of draw.
+    private static void assertSameMixedOutput(MersenneTwister expected, MersenneTwister actual, int draws) {
+        for (int x = 0; x < draws; x++) {
+            switch (x % 3) {
+                case 0:
+                    assertEquals("draw " + x, expected.nextInt(), actual.nextInt());
+                    break;
+                case 1:
+                    assertEquals("draw " + x, expected.nextLong(), actual.nextLong());
+                    break;
+                default:
+                    int len = (x * 7) % 41;
+                    int[] want = new int[len];
+                    int[] got = new int[len];
+                    expected.nextInts(want, 0, len);
+                    actual.nextInts(got, 0, len);
+                    assertArrayEquals("draw " + x, want, got);
+            }
+        }
+    }
+
+    private static MersenneTwister incremental(MersenneTwister rng) {
+        rng.setTwistMode(MersenneTwister.TwistMode.INCREMENTAL);
+        return rng;
+    }
+
+    static MersenneTwister roundTrip(MersenneTwister rng) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(rng);
+        }
+
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (MersenneTwister) in.readObject();
+        }
+    }
+
+    @Test
+    public void initGenRand() {
+        MersenneTwister rng = new MersenneTwister(5489);
+        assertEquals(3499211612L, rng.nextInt() & 0xFFFFFFFFL);
+
+        // The value C++ requires of the 10000th draw from a default std::mt19937.
+        for (int x = 2; x < 10000; x++) {
+            rng.nextInt();
+        }
+
+        assertEquals(4123659995L, rng.nextInt() & 0xFFFFFFFFL);
+    }
+
+    @Test
+    public void initByArray() throws IOException {
+        List<String> expected = ReferenceOutput.section(REFERENCE, "1000 outputs of genrand_int32()");
+        MersenneTwister rng = new MersenneTwister(KEY);
+
+        assertEquals(1000, expected.size());
+
+        for (int x = 0; x < expected.size(); x++) {
+            assertEquals("word " + x, expected.get(x), Integer.toUnsignedString(rng.nextInt()));
+        }
+    }
+
+    // Either side of the point where discard() stops stepping and jumps, from
+    // a position partway through a generation.
+    @Test
+    public void discardMatchesStepping() {
+        long threshold = MersenneTwister.DISCARD_JUMP_THRESHOLD;
+
+        for (long n : new long[] { 0, 1, 623, 624, 1000, threshold - 1, threshold, threshold + 625 }) {
+            MersenneTwister stepped = new MersenneTwister(KEY);
+            stepped.nextInt();
+            MersenneTwister discarded = (MersenneTwister) stepped.clone();
+
+            for (long x = 0; x < n; x++) {
+                stepped.nextInt();
+            }
+
+            discarded.discard(n);
+            assertSameOutput(stepped, discarded);
+        }
+    }
+
+    @Test
+    public void smallJumpsMatchStepping() {
+        for (int k = 0; k <= 12; k++) {
+            MersenneTwister stepped = new MersenneTwister(KEY);
+            stepped.nextInt();
+            MersenneTwister jumped = (MersenneTwister) stepped.clone();
+
+            for (int x = 0; x < 1 << k; x++) {
+                stepped.nextInt();
+            }
+
+            jumped.jumpPowerOfTwo(k);
+            assertSameOutput(stepped, jumped);
+        }
+    }
+
+    // Too far to step, so check that two half jumps make a whole one, and
+    // that discard()'s t^n agrees with the squared powers jump() uses.
+    @Test
+    public void jumpIsTwoHalfJumps() {
+        MersenneTwister jumped = new MersenneTwister(KEY);
+        MersenneTwister halves = (MersenneTwister) jumped.clone();
+
+        jumped.jump();
+        halves.jumpPowerOfTwo(127);
+        halves.jumpPowerOfTwo(127);
+        assertSameOutput(jumped, halves);
+
+        MersenneTwister discarded = new MersenneTwister(KEY);
+        MersenneTwister powered = (MersenneTwister) discarded.clone();
+
+        discarded.discard(1L << 62);
+        discarded.discard(1L << 62);
+        powered.jumpPowerOfTwo(63);
+        assertSameOutput(powered, discarded);
+    }
+
+    @Test
+    public void splitCarriesOnFromParent() {
+        MersenneTwister parent = new MersenneTwister(KEY);
+        parent.nextInt();
+        MersenneTwister expected = (MersenneTwister) parent.clone();
+        MersenneTwister child = parent.split();
+
+        assertSameOutput(expected, child);
+
+        expected = new MersenneTwister(KEY);
+        expected.nextInt();
+        expected.jump();
+        assertSameOutput(expected, parent);
+    }
+
+    // mt19937-legacy.ser was written by the class as it was before the
+    // compact serial form: seeded with 4357, then 1000 nextInt() calls and
+    // one nextGaussian(), which leaves the spare Gaussian set. Those streams
+    // predate the Ziggurat, so they must come back using the polar method.
+    @Test
+    public void readsLegacyStream() throws IOException, ClassNotFoundException {
+        InputStream stream = MersenneTwisterTest.class.getResourceAsStream(LEGACY);
+
+        if (stream == null) {
+            throw new IOException("Missing test resource: " + LEGACY);
+        }
+
+        MersenneTwister actual;
+
+        try (ObjectInputStream in = new ObjectInputStream(stream)) {
+            actual = (MersenneTwister) in.readObject();
+        }
+
+        MersenneTwister expected = new MersenneTwister(4357);
+        expected.setGaussianMethod(MersenneTwister.GaussianMethod.POLAR);
+
+        for (int x = 0; x < 1000; x++) {
+            expected.nextInt();
+        }
+
+        expected.nextGaussian();
+        assertSameOutput(expected, actual);
+        assertEquals(expected.nextGaussian(), actual.nextGaussian(), 0.0);
+        assertEquals(expected.nextDouble(), actual.nextDouble(), 0.0);
+    }
+
+    @Test
+    public void compactRoundTrip() throws IOException, ClassNotFoundException {
+        MersenneTwister rng = new MersenneTwister(4357);
+
+        for (int x = 0; x < 5000; x++) {
+            rng.nextInt();
+        }
+
+        rng.nextGaussian();
+        MersenneTwister copy = roundTrip(rng);
+
+        assertEquals(rng.nextGaussian(), copy.nextGaussian(), 0.0);
+        assertSameOutput(rng, copy);
+    }
+
+    // Too many draws to replay, and a seed with no draw count at all: both
+    // have to fall back to the full state array.
+    @Test
+    public void fullRoundTrip() throws IOException, ClassNotFoundException {
+        MersenneTwister rng = new MersenneTwister(4357);
+        rng.nextInts(new int[(1 << 20) + 1000], 0, (1 << 20) + 1000);
+        assertSameOutput(rng, roundTrip(rng));
+
+        rng = new MersenneTwister(KEY);
+        rng.nextInt();
+        assertSameOutput(rng, roundTrip(rng));
+    }
+
+    @Test
+    public void lazyRoundTrip() throws IOException, ClassNotFoundException {
+        MersenneTwister copy = roundTrip(new MersenneTwister(4357, true));
+        assertSameOutput(new MersenneTwister(4357), copy);
+    }
+
+    // About 30 generations' worth of words for each seeding path.
+    @Test
+    public void incrementalMatchesBlock() {
+        assertSameMixedOutput(new MersenneTwister(4357), incremental(new MersenneTwister(4357)), 1500);
+        assertSameMixedOutput(new MersenneTwister(KEY), incremental(new MersenneTwister(KEY)), 1500);
+    }
+
+    @Test
+    public void switchingModeMidGeneration() {
+        MersenneTwister block = new MersenneTwister(KEY);
+        MersenneTwister switched = incremental(new MersenneTwister(KEY));
+
+        for (int x = 0; x < 20; x++) {
+            assertSameMixedOutput(block, switched, 17 + x);
+
+            // Bulk draws finish a partial twist, so end on single words to
+            // stop at a different point of one each time.
+            for (int y = 0; y < 37 * x; y++) {
+                assertEquals(block.nextInt(), switched.nextInt());
+            }
+
+            MersenneTwister.TwistMode mode = x % 2 == 0 ? MersenneTwister.TwistMode.BLOCK : MersenneTwister.TwistMode.INCREMENTAL;
+            switched.setTwistMode(mode);
+            assertEquals(mode, switched.getTwistMode());
+        }
+
+        assertSameMixedOutput(block, switched, 500);
+    }
+
+    // Partway through an incremental twist, through both the compact and the
+    // full serial form; the copy finishes the twist and stays incremental.
+    @Test
+    public void roundTripMidTwist() throws IOException, ClassNotFoundException {
+        for (MersenneTwister rng : new MersenneTwister[] { new MersenneTwister(4357), new MersenneTwister(KEY) }) {
+            MersenneTwister block = (MersenneTwister) rng.clone();
+            incremental(rng);
+            assertSameMixedOutput(block, rng, 1030);
+
+            for (int x = 0; x < 200; x++) {
+                assertEquals(block.nextInt(), rng.nextInt());
+            }
+
+            MersenneTwister copy = roundTrip(rng);
+            assertEquals(MersenneTwister.TwistMode.INCREMENTAL, copy.getTwistMode());
+            assertSameMixedOutput((MersenneTwister) block.clone(), copy, 500);
+            assertSameMixedOutput(block, rng, 500);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package dev.larrabyte.huff;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+// Checks the stride arithmetic behind jump() and split().
+public class Pcg64Test {
+    @Test
+    public void advanceMatchesStepping() {
+        for (int k = 0; k <= 12; k++) {
+            Pcg64 stepped = new Pcg64(42, 54);
+            Pcg64 advanced = (Pcg64) stepped.clone();
+
+            for (int x = 0; x < 1 << k; x++) {
+                stepped.nextLong();
+            }
+
+            advanced.advancePowerOfTwo(k);
+            assertTrue("2^" + k, stepped.stateEquals(advanced));
+        }
+    }
+
+    // Too far to step, so check that two half strides make a whole one.
+    @Test
+    public void jumpIsTwoHalfJumps() {
+        Pcg64 jumped = new Pcg64(42, 54);
+        Pcg64 halves = (Pcg64) jumped.clone();
+
+        jumped.jump();
+        halves.advancePowerOfTwo(95);
+        halves.advancePowerOfTwo(95);
+
+        assertTrue(jumped.stateEquals(halves));
+    }
+
+    @Test
+    public void splitCarriesOnFromParent() {
+        Pcg64 parent = new Pcg64(42, 54);
+        Pcg64 expected = (Pcg64) parent.clone();
+        Pcg64 child = parent.split();
+
+        for (int x = 0; x < 1000; x++) {
+            assertEquals(expected.nextLong(), child.nextLong());
+        }
+
+        expected = new Pcg64(42, 54);
+        expected.jump();
+        assertTrue(parent.stateEquals(expected));
+    }
+}
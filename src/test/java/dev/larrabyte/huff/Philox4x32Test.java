@@ -0,0 +1,85 @@
+package dev.larrabyte.huff;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+// Known answers from Random123's kat_vectors for philox4x32_10, and checks
+// that the three ways of reading the stream agree with each other.
+public class Philox4x32Test {
+    // Word indices around the block boundaries at the start of the stream,
+    // and where the block index carries out of its low 32 bits.
+    private static final long[] STARTS = { 0, 1, 2, 3, 4, 5, 7, 8, 9, (1L << 34) - 5, (1L << 34) - 1, 1L << 34 };
+
+    private static void assertBlock(int[] expected, int c0, int c1, int c2, int c3, int k0, int k1) {
+        int[] out = new int[4];
+        Philox4x32.block(c0, c1, c2, c3, k0, k1, out, 0);
+        assertArrayEquals(expected, out);
+    }
+
+    @Test
+    public void knownAnswers() {
+        assertBlock(new int[] { 0x6627E8D5, 0xE169C58D, 0xBC57AC4C, 0x9B00DBD8 },
+                0, 0, 0, 0, 0, 0);
+        assertBlock(new int[] { 0x408F276D, 0x41C83B0E, 0xA20BC7C6, 0x6D5451FD },
+                -1, -1, -1, -1, -1, -1);
+        assertBlock(new int[] { 0xD16CFE09, 0x94FDCCEB, 0x5001E420, 0x24126EA1 },
+                0x243F6A88, 0x85A308D3, 0x13198A2E, 0x03707344, 0xA4093822, 0x299F31D0);
+    }
+
+    // The key's low half is Random123's key[0] and the block index is ctr[0].
+    @Test
+    public void streamStartsAtCounterZero() {
+        Philox4x32 rng = new Philox4x32(0);
+        int[] expected = { 0x6627E8D5, 0xE169C58D, 0xBC57AC4C, 0x9B00DBD8 };
+
+        for (int x = 0; x < 4; x++) {
+            assertEquals("word " + x, expected[x], rng.at(x));
+            assertEquals("word " + x, expected[x], rng.nextInt());
+        }
+    }
+
+    @Test
+    public void positionMatchesAt() {
+        Philox4x32 rng = new Philox4x32(0x0123456789ABCDEFL);
+
+        for (long start : STARTS) {
+            rng.setPosition(start);
+
+            for (int x = 0; x < 10; x++) {
+                assertEquals("word " + (start + x), rng.at(start + x), rng.nextInt());
+            }
+
+            assertEquals(start + 10, rng.getPosition());
+        }
+    }
+
+    // Every alignment of the start within a block, with lengths that end
+    // partway through one, into a destination offset from its start.
+    @Test
+    public void fillMatchesAt() {
+        Philox4x32 rng = new Philox4x32(0x0123456789ABCDEFL);
+
+        for (long start : STARTS) {
+            for (int len = 0; len <= 13; len++) {
+                int[] dst = new int[len + 6];
+                rng.fill(dst, 3, len, start);
+
+                for (int x = 0; x < len; x++) {
+                    assertEquals("word " + (start + x), rng.at(start + x), dst[3 + x]);
+                }
+
+                assertEquals(0, dst[2]);
+                assertEquals(0, dst[3 + len]);
+            }
+        }
+
+        int[] whole = new int[9];
+        rng.fill(whole, 5);
+
+        for (int x = 0; x < whole.length; x++) {
+            assertEquals("word " + (5 + x), rng.at(5 + x), whole[x]);
+        }
+    }
+}
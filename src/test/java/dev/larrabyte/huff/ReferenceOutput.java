@@ -0,0 +1,59 @@
+package dev.larrabyte.huff;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Reads the reference output files that ship with the C implementations.
+// Each is a series of sections: a title line (any line with a letter in it),
+// then whitespace-separated numbers up to the next title.
+final class ReferenceOutput {
+    private ReferenceOutput() {}
+
+    // Returns the numbers in the section whose title line starts with title.
+    static List<String> section(String resource, String title) throws IOException {
+        InputStream stream = ReferenceOutput.class.getResourceAsStream(resource);
+
+        if (stream == null) {
+            throw new IOException("Missing test resource: " + resource);
+        }
+
+        List<String> values = new ArrayList<>();
+        boolean inside = false;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.US_ASCII))) {
+            for (String line; (line = reader.readLine()) != null; ) {
+                String trimmed = line.trim();
+
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+
+                if (trimmed.chars().anyMatch(Character::isLetter)) {
+                    if (inside) {
+                        break;
+                    }
+
+                    inside = trimmed.startsWith(title);
+                    continue;
+                }
+
+                if (inside) {
+                    for (String token : trimmed.split("\\s+")) {
+                        values.add(token);
+                    }
+                }
+            }
+        }
+
+        if (values.isEmpty()) {
+            throw new IOException("No section starting \"" + title + "\" in " + resource);
+        }
+
+        return values;
+    }
+}
@@ -0,0 +1,96 @@
+package dev.larrabyte.huff;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+// Known answers from SFMT.19937.out.txt, the output of the reference
+// implementation's test program for SFMT19937.
+public class SfmtTwisterTest {
+    private static final String REFERENCE = "SFMT.19937.out.txt";
+
+    private static void assertMatches(List<String> expected, SfmtTwister rng) {
+        assertEquals(1000, expected.size());
+
+        for (int x = 0; x < expected.size(); x++) {
+            assertEquals("word " + x, expected.get(x), Integer.toUnsignedString(rng.nextInt()));
+        }
+    }
+
+    @Test
+    public void initGenRand() throws IOException {
+        assertMatches(ReferenceOutput.section(REFERENCE, "init_gen_rand"), new SfmtTwister(1234));
+    }
+
+    @Test
+    public void initByArray() throws IOException {
+        int[] key = { 0x1234, 0x5678, 0x9abc, 0xdef0 };
+        assertMatches(ReferenceOutput.section(REFERENCE, "init_by_array"), new SfmtTwister(key));
+    }
+
+    @Test
+    public void reseedMatchesFreshGenerator() throws IOException {
+        SfmtTwister rng = new SfmtTwister(new int[] { 1, 2, 3 });
+        rng.nextInt();
+        rng.setSeed(1234);
+
+        assertMatches(ReferenceOutput.section(REFERENCE, "init_gen_rand"), rng);
+    }
+
+    // Far enough past the degree of the modulus that the reduction is used.
+    @Test
+    public void jumpMatchesStepping() {
+        Random random = new Random(19937);
+        long[] state = new long[312];
+
+        for (int x = 0; x < state.length; x++) {
+            state[x] = random.nextLong();
+        }
+
+        long[] window = state.clone();
+        long[] expected = new long[312];
+        int p = 0;
+
+        for (int x = 0; x < 30000; x++) {
+            p = SfmtJump.step(window, p);
+        }
+
+        for (int i = 0; i < 156; i++) {
+            for (int k = 0; k < 2; k++) {
+                expected[2 * i + k] = window[2 * ((p + i) % 156) + k];
+            }
+        }
+
+        SfmtJump.apply(state, SfmtJump.power(30000));
+        assertArrayEquals(expected, state);
+    }
+
+    @Test
+    public void checkpointRoundTrip() throws IOException {
+        for (ByteOrder order : new ByteOrder[] { ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN }) {
+            SfmtTwister rng = new SfmtTwister(1234);
+            for (int x = 0; x < 1001; x++) {
+                rng.nextInt();
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(rng.checkpointBytes()).order(order);
+            rng.writeCheckpoint(buffer);
+            buffer.flip();
+
+            SfmtTwister copy = new SfmtTwister(1);
+            copy.readCheckpoint(buffer);
+
+            assertTrue(rng.stateEquals(copy));
+            assertEquals(0, buffer.remaining());
+            assertEquals(rng.nextLong(), copy.nextLong());
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package dev.larrabyte.huff;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.function.DoubleUnaryOperator;
+
+import org.junit.Test;
+
+// Goodness of fit for the normal and exponential samplers, with fixed seeds
+// so a pass or a failure is reproducible. Each sample is mapped through the
+// target CDF and checked for uniformity with Kolmogorov-Smirnov and a
+// 100-bin chi-square. The Ziggurat picks its layer with the low bits of the
+// same word that places the point, so consecutive pairs are also binned
+// together, and the tail beyond the base layer is counted on its own.
+//
+// Thresholds are at the 0.1% level, so an unlucky seed is possible but a
+// correlation bug fails by orders of magnitude.
+public class ZigguratTest {
+    private static final int SAMPLES = 200000;
+
+    // Kolmogorov-Smirnov critical value at alpha = 0.001, times sqrt(n).
+    private static final double KS_CRITICAL = 1.949;
+
+    // Chi-square critical value at alpha = 0.001 with 99 degrees of freedom.
+    private static final double CHI_SQUARE_CRITICAL_99 = 148.23;
+
+    // Rightmost layer edges of the two ziggurats.
+    private static final double NORMAL_R = 3.442619855899;
+    private static final double EXP_R = 7.697117470131487;
+
+    private interface Sampler {
+        double next();
+    }
+
+    // Standard normal CDF, through erfc with a fractional error below 1.2e-7
+    // (Numerical Recipes, section 6.2), far tighter than the tests need.
+    private static double normalCdf(double x) {
+        double z = Math.abs(x) / Math.sqrt(2.0);
+        double t = 1.0 / (1.0 + 0.5 * z);
+        double erfc = t * Math.exp(-z * z - 1.26551223 + t * (1.00002368 + t * (0.37409196 + t * (0.09678418
+                + t * (-0.18628806 + t * (0.27886807 + t * (-1.13520398 + t * (1.48851587
+                + t * (-0.82215223 + t * 0.17087277)))))))));
+
+        return x >= 0 ? 1.0 - 0.5 * erfc : 0.5 * erfc;
+    }
+
+    private static double exponentialCdf(double x) {
+        return x <= 0 ? 0.0 : -Math.expm1(-x);
+    }
+
+    private static double[] uniforms(Sampler sampler, DoubleUnaryOperator cdf) {
+        double[] u = new double[SAMPLES];
+
+        for (int x = 0; x < SAMPLES; x++) {
+            u[x] = cdf.applyAsDouble(sampler.next());
+        }
+
+        return u;
+    }
+
+    private static void assertKolmogorovSmirnov(String name, double[] u) {
+        double[] sorted = u.clone();
+        Arrays.sort(sorted);
+
+        double d = 0;
+
+        for (int x = 0; x < sorted.length; x++) {
+            d = Math.max(d, Math.max((x + 1.0) / sorted.length - sorted[x], sorted[x] - (double) x / sorted.length));
+        }
+
+        double critical = KS_CRITICAL / Math.sqrt(sorted.length);
+        assertTrue(name + ": KS statistic " + d + " exceeds " + critical, d < critical);
+    }
+
+    private static double chiSquare(long[] counts, double expected) {
+        double sum = 0;
+
+        for (long count : counts) {
+            sum += (count - expected) * (count - expected) / expected;
+        }
+
+        return sum;
+    }
+
+    private static int bin(double u, int bins) {
+        return Math.min((int) (u * bins), bins - 1);
+    }
+
+    private static void assertChiSquare(String name, double[] u) {
+        long[] counts = new long[100];
+
+        for (double v : u) {
+            counts[bin(v, 100)]++;
+        }
+
+        double statistic = chiSquare(counts, u.length / 100.0);
+        assertTrue(name + ": chi-square " + statistic + " exceeds " + CHI_SQUARE_CRITICAL_99, statistic < CHI_SQUARE_CRITICAL_99);
+    }
+
+    // Bins (u[i], u[i + 1]) for disjoint pairs on a 10 x 10 grid.
+    private static void assertPairsIndependent(String name, double[] u) {
+        long[] counts = new long[100];
+
+        for (int x = 0; x + 1 < u.length; x += 2) {
+            counts[bin(u[x], 10) * 10 + bin(u[x + 1], 10)]++;
+        }
+
+        double statistic = chiSquare(counts, (u.length / 2) / 100.0);
+        assertTrue(name + ": pair chi-square " + statistic + " exceeds " + CHI_SQUARE_CRITICAL_99, statistic < CHI_SQUARE_CRITICAL_99);
+    }
+
+    // Checks that the share of samples past the edge is within 4.5 standard
+    // deviations of the binomial expectation.
+    private static void assertTail(String name, double[] u, double edgeProbability) {
+        long count = 0;
+
+        for (double v : u) {
+            if (v > 1.0 - edgeProbability) {
+                count++;
+            }
+        }
+
+        double mean = u.length * edgeProbability;
+        double sd = Math.sqrt(mean * (1.0 - edgeProbability));
+        assertTrue(name + ": " + count + " tail samples, expected about " + mean, Math.abs(count - mean) < 4.5 * sd);
+    }
+
+    private static void assertFits(String name, double[] u, double tailProbability) {
+        assertKolmogorovSmirnov(name, u);
+        assertChiSquare(name, u);
+        assertPairsIndependent(name, u);
+        assertTail(name, u, tailProbability);
+    }
+
+    private static MersenneTwister twister(long seed, MersenneTwister.GaussianMethod method) {
+        MersenneTwister rng = new MersenneTwister(seed);
+        rng.setGaussianMethod(method);
+        return rng;
+    }
+
+    @Test
+    public void zigguratNormal() {
+        MersenneTwister rng = twister(4357, MersenneTwister.GaussianMethod.ZIGGURAT);
+        double[] u = uniforms(rng::nextGaussian, ZigguratTest::normalCdf);
+
+        // The upper tail past the base layer's edge, on one side only.
+        assertFits("ziggurat", u, 1.0 - normalCdf(NORMAL_R));
+    }
+
+    @Test
+    public void polarNormal() {
+        MersenneTwister rng = twister(4357, MersenneTwister.GaussianMethod.POLAR);
+        double[] u = uniforms(rng::nextGaussian, ZigguratTest::normalCdf);
+
+        assertFits("polar", u, 1.0 - normalCdf(NORMAL_R));
+    }
+
+    @Test
+    public void exponential() {
+        MersenneTwister rng = new MersenneTwister(4357);
+        double[] u = uniforms(rng::nextExponential, ZigguratTest::exponentialCdf);
+
+        assertFits("exponential", u, Math.exp(-EXP_R));
+    }
+
+    // The default methods take the layer from whatever low bits the engine
+    // produces, so check an engine whose words aren't MT19937's too.
+    @Test
+    public void zigguratOnXoshiro() {
+        Xoshiro256StarStar rng = new Xoshiro256StarStar(4357);
+
+        assertFits("ziggurat (xoshiro256**)", uniforms(rng::nextGaussian, ZigguratTest::normalCdf), 1.0 - normalCdf(NORMAL_R));
+        assertFits("exponential (xoshiro256**)", uniforms(rng::nextExponential, ZigguratTest::exponentialCdf), Math.exp(-EXP_R));
+    }
+}